@@ -0,0 +1,67 @@
+package guru.springframework.spring6restmvc.benchmarks;
+
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.services.BeerCsvService;
+import guru.springframework.spring6restmvc.services.BeerCsvServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing cost of beers.csv scaled up to {@code copies} times its 2410 rows, whole file versus streaming.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BeerCsvBenchmark {
+
+    @Param({"1", "20"})
+    int copies;
+
+    BeerCsvService beerCsvService;
+    File csvFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        beerCsvService = new BeerCsvServiceImpl();
+        csvFile = ScaledBeerCsv.write(copies).toFile();
+    }
+
+    @Benchmark
+    public List<BeerCSVRecord> convertCsv() {
+        return beerCsvService.convertCSV(csvFile);
+    }
+
+    @Benchmark
+    public long iterateCsv() throws IOException {
+        long rows = 0;
+        try (Reader reader = new BufferedReader(new FileReader(csvFile))) {
+            Iterator<BeerCSVRecord> records = beerCsvService.iterateCSV(reader);
+            while (records.hasNext()) {
+                records.next();
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,102 @@
+package guru.springframework.spring6restmvc.benchmarks;
+
+import guru.springframework.spring6restmvc.Spring6RestMvcApplication;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.services.BeerCsvImportService;
+import guru.springframework.spring6restmvc.services.BeerService;
+import guru.springframework.spring6restmvc.services.BeerServiceJPA;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.util.AopTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Beer listing against the embedded H2 database, seeded by the bootstrap data plus beers.csv imported
+ * {@code copies} more times.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerServiceBenchmark {
+    private static final int PAGE_SIZE = 25;
+
+    @Param({"10"})
+    int copies;
+
+    ConfigurableApplicationContext context;
+    BeerService beerService;
+    BeerServiceJPA beerServiceTarget;
+    int pages;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(Spring6RestMvcApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=warn", "logging.level.guru.springframework=warn")
+                .run();
+        context.getBean(BeerCsvImportService.class).importCsv(ScaledBeerCsv.write(copies).toFile());
+
+        beerService = context.getBean(BeerService.class);
+        beerServiceTarget = AopTestUtils.getUltimateTargetObject(beerService);    // without the metrics and transaction proxies
+        pages = (int) (beerService.getAllBeers(null, null, null, null, 1, PAGE_SIZE).getTotalElements() / PAGE_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PageRequest buildPageRequest() {
+        return beerServiceTarget.buildPageRequest(ThreadLocalRandom.current().nextInt(pages), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Slice<BeerDTO> beerSlice() {
+        return beerService.getBeerSlice(null, null, null, null, randomPage(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Slice<BeerDTO> beerSliceWithoutInventory() {
+        return beerService.getBeerSlice(null, null, null, false, randomPage(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Slice<BeerDTO> beerSliceByNameAndStyle() {
+        return beerService.getBeerSlice("IPA", BeerSearchMode.CONTAINS, BeerStyle.IPA, null, randomPage() % 10 + 1,
+                PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<BeerDTO> beerPageCached() {
+        return beerService.getAllBeers(null, null, null, null, 1, PAGE_SIZE);
+    }
+
+    private int randomPage() {
+        return ThreadLocalRandom.current().nextInt(pages) + 1;
+    }
+}
@@ -0,0 +1,38 @@
+package guru.springframework.spring6restmvc.benchmarks;
+
+import org.springframework.util.ResourceUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes beers.csv repeated {@code copies} times into a temporary file, renumbering the row column so every copy
+ * gets its own upc.
+ */
+final class ScaledBeerCsv {
+
+    private ScaledBeerCsv() {
+    }
+
+    static Path write(int copies) throws IOException {
+        List<String> lines = Files.readAllLines(ResourceUtils.getFile("classpath:csvdata/beers.csv").toPath());
+        Path csvFile = Files.createTempFile("beers-x" + copies + "-", ".csv");
+        csvFile.toFile().deleteOnExit();
+
+        int row = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(csvFile)) {
+            writer.write(lines.get(0));
+            writer.newLine();
+            for (int copy = 0; copy < copies; copy++) {
+                for (String line : lines.subList(1, lines.size())) {
+                    writer.write("\"" + ++row + "\"" + line.substring(line.indexOf(',')));
+                    writer.newLine();
+                }
+            }
+        }
+        return csvFile;
+    }
+}
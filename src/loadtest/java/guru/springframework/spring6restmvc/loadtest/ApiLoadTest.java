@@ -0,0 +1,203 @@
+package guru.springframework.spring6restmvc.loadtest;
+
+import guru.springframework.spring6restmvc.controller.BeerController;
+import guru.springframework.spring6restmvc.controller.CustomerController;
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.entities.Customer;
+import guru.springframework.spring6restmvc.loadtest.LoadGenerator.Operation;
+import guru.springframework.spring6restmvc.loadtest.LoadGenerator.OperationResult;
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import guru.springframework.spring6restmvc.services.BeerBatchWriter;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed read / write traffic against the beer and customer APIs over real HTTP, with p99 gates on every operation.
+ * Runs with {@code mvn -Ploadtest verify}; catalog size, traffic and gates are set in application-loadtest.properties.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@DisplayName("Beer and Customer API load test")
+class ApiLoadTest {
+    private static final String[] NAME_WORDS = {"Hoppy", "Golden", "Dark", "Hazy", "Imperial", "Session", "Wild",
+            "Citra", "Mosaic", "Galaxy", "Cat", "Dog", "River", "Mountain", "Harvest", "Winter", "Amber", "Ruby",
+            "Copper", "Velvet", "Smoked", "Barrel", "Juicy", "Tart", "Midnight", "Summer", "Coast", "Prairie",
+            "Falcon", "Otter", "Lantern", "Anchor", "Orchard", "Thunder", "Pilgrim", "Bandit", "Cascade", "Simcoe",
+            "Nugget", "Comet", "Sterling", "Saaz", "Tettnang", "Magnum", "Willow", "Cedar", "Granite", "Harbor",
+            "Meadow", "Canyon", "Glacier", "Ember", "Frost", "Maple", "Juniper", "Saffron", "Cocoa", "Vanilla",
+            "Biscuit", "Toffee", "Citrus", "Mango", "Cherry", "Plum"};
+    private static final int PAGE_SIZE = 25;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    BeerBatchWriter beerBatchWriter;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Value("${loadtest.catalog-size}")
+    int catalogSize;
+
+    @Value("${loadtest.customers}")
+    int customers;
+
+    @Value("${loadtest.users}")
+    int users;
+
+    @Value("${loadtest.requests-per-second-per-user}")
+    double requestsPerSecondPerUser;
+
+    @Value("${loadtest.warmup}")
+    Duration warmup;
+
+    @Value("${loadtest.duration}")
+    Duration duration;
+
+    @Value("${loadtest.p99-slo}")
+    Duration p99Slo;
+
+    @Value("${loadtest.baseline}")
+    String baseline;
+
+    @Value("${loadtest.max-p99-regression}")
+    double maxP99Regression;
+
+    @Value("${loadtest.results-directory}")
+    Path resultsDirectory;
+
+    List<UUID> beerIds;
+    List<UUID> customerIds;
+
+    @BeforeEach
+    void setUp() {
+        List<Beer> batch = new ArrayList<>(beerBatchWriter.getBatchSize());
+        for (int i = 0; i < catalogSize; i++) {
+            batch.add(syntheticBeer(i));
+            if (batch.size() == beerBatchWriter.getBatchSize() || i == catalogSize - 1) {
+                beerBatchWriter.persistBatch(batch);
+                batch = new ArrayList<>(beerBatchWriter.getBatchSize());
+            }
+        }
+        customerRepository.saveAll(IntStream.range(0, customers)
+                .mapToObj(i -> Customer.builder().name("Load Test Customer " + i).build())
+                .toList());
+
+        beerIds = entityManager.createQuery("select b.id from Beer b", UUID.class).getResultList();
+        customerIds = entityManager.createQuery("select c.id from Customer c", UUID.class).getResultList();
+    }
+
+    @Test
+    @DisplayName("p99 of every operation stays within the SLO under mixed traffic")
+    void mixedTrafficMeetsLatencySlo() throws Exception {
+        int beerPages = beerIds.size() / PAGE_SIZE;
+
+        LoadGenerator loadGenerator = new LoadGenerator(List.of(
+                new Operation("listBeers", 30, () -> get(BeerController.BEER_PATH
+                        + "?pageSize=" + PAGE_SIZE + "&pageNumber=" + (random().nextInt(beerPages) + 1))),
+                // searches without a mode run the default CONTAINS search, the one most clients send
+                new Operation("searchBeers", 4, () -> get(BeerController.BEER_PATH
+                        + "?beerName=" + randomWordPart())),
+                new Operation("searchBeersByStyle", 4, () -> get(BeerController.BEER_PATH
+                        + "?beerName=" + randomWordPart() + "&beerStyle=" + randomStyle())),
+                new Operation("prefixSearchBeers", 2, () -> get(BeerController.BEER_PATH
+                        + "?searchMode=" + BeerSearchMode.PREFIX
+                        + "&beerName=" + NAME_WORDS[random().nextInt(NAME_WORDS.length)]
+                        + "&beerStyle=" + randomStyle())),
+                new Operation("getBeer", 30, () -> get(BeerController.BEER_PATH + "/" + randomId(beerIds))),
+                new Operation("patchBeer", 10, () -> json(BeerController.BEER_PATH + "/" + randomId(beerIds), "PATCH",
+                        "{\"quantityOnHand\": " + random().nextInt(500) + "}")),
+                new Operation("listCustomers", 5, () -> get(CustomerController.CUSTOMER_PATH
+                        + "?pageSize=" + PAGE_SIZE + "&pageNumber=" + (random().nextInt(customers / PAGE_SIZE) + 1))),
+                new Operation("getCustomer", 10, () -> get(CustomerController.CUSTOMER_PATH + "/" + randomId(customerIds))),
+                new Operation("createCustomer", 5, () -> json(CustomerController.CUSTOMER_PATH, "POST",
+                        "{\"name\": \"Load Test Customer " + UUID.randomUUID() + "\"}"))));
+
+        List<OperationResult> results = loadGenerator.run(users, warmup, duration, requestsPerSecondPerUser);
+
+        LatencyReport report = new LatencyReport(results, duration);
+        report.write(resultsDirectory);
+        List<String> violations = report.violations(p99Slo,
+                StringUtils.hasText(baseline) ? Path.of(baseline) : null, maxP99Regression);
+
+        assertThat(violations).as("latency gates, results in " + resultsDirectory.toAbsolutePath()).isEmpty();
+    }
+
+    private Beer syntheticBeer(int i) {
+        ThreadLocalRandom random = random();
+        return Beer.builder()
+                .beerName(NAME_WORDS[random.nextInt(NAME_WORDS.length)] + " " + NAME_WORDS[random.nextInt(NAME_WORDS.length)]
+                        + " " + i)
+                .beerStyle(BeerStyle.values()[random.nextInt(BeerStyle.values().length)])
+                .upc("LOAD-" + i)
+                .price(new BigDecimal("9.99"))
+                .quantityOnHand(random.nextInt(500))
+                .build();
+    }
+
+    private static String randomWordPart() {    // a piece from inside a name word, as typed into a search box
+        String word = NAME_WORDS[random().nextInt(NAME_WORDS.length)];
+        int start = random().nextInt(word.length() - 2);
+        return word.substring(start, start + 3 + random().nextInt(word.length() - start - 2));
+    }
+
+    private static BeerStyle randomStyle() {
+        return BeerStyle.values()[random().nextInt(BeerStyle.values().length)];
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Accept", "application/json")
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest json(String path, String method, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .timeout(REQUEST_TIMEOUT)
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static UUID randomId(List<UUID> ids) {
+        return ids.get(random().nextInt(ids.size()));
+    }
+
+    private static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+}
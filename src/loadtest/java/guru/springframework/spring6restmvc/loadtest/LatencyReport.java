@@ -0,0 +1,111 @@
+package guru.springframework.spring6restmvc.loadtest;
+
+import guru.springframework.spring6restmvc.loadtest.LoadGenerator.OperationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Writes the percentiles and throughput of a load test run and checks them against the p99 SLO and, when given,
+ * the results of an earlier run.
+ * <p>
+ * {@code results.properties} of one run can be passed as the baseline of the next one, e.g. the run of the main
+ * branch on the same machine.
+ */
+@Slf4j
+final class LatencyReport {
+    static final String RESULTS_FILE = "results.properties";
+
+    private final List<OperationResult> results;
+    private final Duration measurement;
+
+    LatencyReport(List<OperationResult> results, Duration measurement) {
+        this.results = results;
+        this.measurement = measurement;
+    }
+
+    /**
+     * Writes {@code results.properties} and the full percentile distribution of every operation ({@code .hgrm}).
+     */
+    void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Properties properties = new Properties();
+
+        for (OperationResult result : results) {
+            Histogram histogram = result.histogram();
+            String name = result.name();
+
+            properties.setProperty(name + ".count", String.valueOf(histogram.getTotalCount()));
+            properties.setProperty(name + ".errors", String.valueOf(result.errors()));
+            properties.setProperty(name + ".throughput", String.format("%.1f", throughput(histogram)));
+            properties.setProperty(name + ".p50", String.valueOf(histogram.getValueAtPercentile(50)));
+            properties.setProperty(name + ".p90", String.valueOf(histogram.getValueAtPercentile(90)));
+            properties.setProperty(name + ".p99", String.valueOf(histogram.getValueAtPercentile(99)));
+            properties.setProperty(name + ".p999", String.valueOf(histogram.getValueAtPercentile(99.9)));
+            properties.setProperty(name + ".max", String.valueOf(histogram.getMaxValue()));
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(name + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);    // reported in milliseconds
+            }
+
+            log.info(String.format("%-16s %8d req %8.1f req/s  p50 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms  max %7.2f ms  errors %d",
+                    name, histogram.getTotalCount(), throughput(histogram),
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0, result.errors()));
+        }
+
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(RESULTS_FILE))) {
+            properties.store(writer, "latencies in microseconds, measured over " + measurement);
+        }
+    }
+
+    /**
+     * @param baseline          results of an earlier run, or {@code null} to check the SLO only
+     * @param maxP99Regression  allowed p99 increase over the baseline, 0.2 is 20%
+     * @return one message per violated gate, empty when the run passes
+     */
+    List<String> violations(Duration p99Slo, Path baseline, double maxP99Regression) throws IOException {
+        List<String> violations = new ArrayList<>();
+        Properties baselineResults = new Properties();
+        if (baseline != null) {
+            try (Reader reader = Files.newBufferedReader(baseline)) {
+                baselineResults.load(reader);
+            }
+        }
+
+        for (OperationResult result : results) {
+            String name = result.name();
+            long p99 = result.histogram().getValueAtPercentile(99);
+
+            if (result.errors() > 0) {
+                violations.add(String.format("%s: %d of %d requests failed", name, result.errors(),
+                        result.histogram().getTotalCount()));
+            }
+            if (p99 > p99Slo.toNanos() / 1000) {
+                violations.add(String.format("%s: p99 %.2f ms is over the %d ms SLO", name, p99 / 1000.0,
+                        p99Slo.toMillis()));
+            }
+
+            String baselineP99 = baselineResults.getProperty(name + ".p99");
+            if (baselineP99 != null && p99 > Long.parseLong(baselineP99) * (1 + maxP99Regression)) {
+                violations.add(String.format("%s: p99 %.2f ms regressed more than %.0f%% over the baseline %.2f ms",
+                        name, p99 / 1000.0, maxP99Regression * 100, Long.parseLong(baselineP99) / 1000.0));
+            }
+        }
+        return violations;
+    }
+
+    private double throughput(Histogram histogram) {
+        return histogram.getTotalCount() * 1000.0 / measurement.toMillis();
+    }
+}
@@ -0,0 +1,142 @@
+package guru.springframework.spring6restmvc.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Drives a weighted mix of HTTP operations from a fixed number of virtual users and records the latency of every
+ * operation in an HdrHistogram, in microseconds.
+ * <p>
+ * With a target rate each user sends on a fixed schedule and latency is measured from the time the request was due,
+ * not from the time it was sent, so a stalled server shows up in the percentiles instead of just slowing the users
+ * down (coordinated omission).
+ */
+@Slf4j
+final class LoadGenerator {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    record Operation(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    record OperationResult(String name, Histogram histogram, long errors) {
+    }
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+
+    LoadGenerator(List<Operation> operations) {
+        this.operations = operations;
+        this.totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        operations.forEach(operation -> {
+            recorders.put(operation.name(), new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation.name(), new LongAdder());
+        });
+    }
+
+    /**
+     * Runs {@code users} virtual users for warm-up plus measurement. Only the measurement window is returned.
+     *
+     * @param requestsPerSecondPerUser 0 for a closed loop where every user sends as fast as responses come back
+     */
+    List<OperationResult> run(int users, Duration warmup, Duration measurement, double requestsPerSecondPerUser)
+            throws Exception {
+        long intervalNanos = requestsPerSecondPerUser > 0 ? (long) (1_000_000_000 / requestsPerSecondPerUser) : 0;
+        long endTime = System.nanoTime() + warmup.toNanos() + measurement.toNanos();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(users);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                futures.add(executorService.submit(() -> {
+                    runUser(intervalNanos, endTime);
+                    return null;
+                }));
+            }
+
+            TimeUnit.NANOSECONDS.sleep(warmup.toNanos());
+            recorders.values().forEach(Recorder::reset);    // drops everything recorded during warm-up
+            errors.values().forEach(LongAdder::reset);
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        return operations.stream()
+                .map(operation -> new OperationResult(operation.name(),
+                        recorders.get(operation.name()).getIntervalHistogram(),
+                        errors.get(operation.name()).sum()))
+                .toList();
+    }
+
+    private void runUser(long intervalNanos, long endTime) throws InterruptedException {
+        long dueTime = System.nanoTime();
+
+        while (dueTime < endTime && System.nanoTime() < endTime) {    // a user far behind its schedule stops on time too
+            if (intervalNanos > 0) {
+                long wait = dueTime - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            } else {
+                dueTime = System.nanoTime();
+            }
+
+            Operation operation = nextOperation();
+            boolean failed;
+            try {
+                HttpResponse<Void> response = httpClient.send(operation.request().get(),
+                        HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                log.warn("{} failed: {}", operation.name(), e.toString());
+                failed = true;
+            }
+
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - dueTime);
+            recorders.get(operation.name()).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+            if (failed) {
+                errors.get(operation.name()).increment();
+            }
+
+            dueTime += intervalNanos;
+        }
+    }
+
+    private Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : operations) {
+            pick -= operation.weight();
+            if (pick < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation weights changed while running");
+    }
+}
@@ -2,16 +2,13 @@ package guru.springframework.spring6restmvc.bootstrap;
 
 import guru.springframework.spring6restmvc.entities.Beer;
 import guru.springframework.spring6restmvc.entities.Customer;
-import guru.springframework.spring6restmvc.model.BeerCSVRecord;
 import guru.springframework.spring6restmvc.model.BeerStyle;
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
 import guru.springframework.spring6restmvc.repositories.CustomerRepository;
-import guru.springframework.spring6restmvc.services.BeerCsvService;
+import guru.springframework.spring6restmvc.services.BeerCsvImportService;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ResourceUtils;
 
 import java.io.File;
@@ -19,7 +16,6 @@ import java.io.FileNotFoundException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -27,9 +23,8 @@ public class BootsStrapData implements CommandLineRunner {
 
     private final BeerRepository beerRepository;
     private final CustomerRepository customerRepository;
-    private final BeerCsvService beerCsvService;
+    private final BeerCsvImportService beerCsvImportService;
 
-    @Transactional
     @Override
     public void run(String... args) throws Exception {
         loadBeerData();
@@ -41,30 +36,7 @@ public class BootsStrapData implements CommandLineRunner {
         if(beerRepository.count() < 10) {
             File file = ResourceUtils.getFile("classpath:csvdata/beers.csv");
 
-            List<BeerCSVRecord> recs = beerCsvService.convertCSV(file);
-
-            recs.forEach(beerCSVRecord -> {
-            BeerStyle beerStyle = switch (beerCSVRecord.getStyle()) {
-                case "American Pale Lager" -> BeerStyle.LAGER;
-                case "American Pale Ale (APA)", "American Black Ale", "Belgian Dark Ale", "American Blonde Ale" ->
-                    BeerStyle.ALE;
-                case "American IPA", "American Double / Imperial IPA", "Belgian IPA" -> BeerStyle.IPA;
-                case "American Porter" -> BeerStyle.PORTER;
-                case "Oatmeal Stout", "American Stout" -> BeerStyle.STOUT;
-                case "Saison / Farmhouse Ale" -> BeerStyle.SAISON;
-                case "Fruit / Vegetable Beer", "Winter Warmer", "Berliner Weissbier" -> BeerStyle.WHEAT;
-                case "English Pale Ale" -> BeerStyle.PALE_ALE;
-                default -> BeerStyle.PILSNER;
-            };
-
-            beerRepository.save(Beer.builder()
-                            .beerName(StringUtils.abbreviate(beerCSVRecord.getBeer(), 50))
-                            .beerStyle(beerStyle)
-                            .price(BigDecimal.TEN)
-                            .upc(beerCSVRecord.getRow().toString())
-                            .quantityOnHand(beerCSVRecord.getCount())
-                    .build());
-            });
+            beerCsvImportService.importCsv(file);
         }
     }
 
@@ -0,0 +1,85 @@
+package guru.springframework.spring6restmvc.config;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one class of endpoints, adapted AIMD style from the JDBC time of the requests it lets through:
+ * a request over the latency target shrinks the limit by {@value #BACKOFF_RATIO}, a fast request while the bulkhead
+ * is at least half used grows it by one per limit's worth of requests. The limit stays between min and max limit.
+ * <p>
+ * Requests over the limit wait in arrival order for at most {@code maxWait}, then are turned away.
+ */
+public class AdaptiveBulkhead {
+    static final double BACKOFF_RATIO = 0.9;
+
+    @Getter
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition permitReleased = lock.newCondition();
+    private volatile double limit;    // volatile for the gauges, changed under the lock only
+    private volatile int inFlight;
+
+    public AdaptiveBulkhead(String name, int minLimit, int maxLimit, Duration latencyTarget, Duration maxWait) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.limit = maxLimit;
+    }
+
+    /**
+     * @return {@code false} when no permit came free within the wait budget
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long remainingNanos = maxWaitNanos;
+            while (inFlight >= getLimit()) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = permitReleased.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gives the permit back and adapts the limit to the JDBC time of the request, a negative time leaves it as is.
+     */
+    public void release(long jdbcNanos) {
+        lock.lock();
+        try {
+            if (jdbcNanos > latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (jdbcNanos >= 0 && inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            inFlight--;
+            permitReleased.signalAll();    // a grown limit can admit more than one waiter
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+}
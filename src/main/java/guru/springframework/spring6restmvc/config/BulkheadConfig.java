@@ -0,0 +1,49 @@
+package guru.springframework.spring6restmvc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Registers the {@link BulkheadFilter} with one {@link AdaptiveBulkhead} per endpoint class. Limits, latency target
+ * and wait budget of each can be set as {@code bulkhead.<name>.min-limit / max-limit / latency-target / max-wait}.
+ * <p>
+ * The max limit defaults to the class's {@code bulkhead.<name>.pool-share} of the connection pool, at least one, so
+ * with shares adding up to one the classes split the pool between them instead of over-committing it, and a burst of
+ * one class can not take the connections the others need.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+
+    @Bean
+    BulkheadFilter bulkheadFilter(MeterRegistry meterRegistry, Environment environment) {
+        Duration maxWait = environment.getProperty("bulkhead.max-wait", Duration.class, Duration.ofMillis(100));
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+
+        return new BulkheadFilter(List.of(
+                bulkhead(environment, BulkheadFilter.CATALOG_SEARCH, poolSize, 0.1, Duration.ofMillis(200), maxWait),
+                bulkhead(environment, BulkheadFilter.CATALOG_READ, poolSize, 0.3, Duration.ofMillis(20), maxWait),
+                bulkhead(environment, BulkheadFilter.CATALOG_WRITE, poolSize, 0.2, Duration.ofMillis(50), maxWait),
+                bulkhead(environment, BulkheadFilter.CUSTOMER, poolSize, 0.2, Duration.ofMillis(20), maxWait),
+                bulkhead(environment, BulkheadFilter.ORDER, poolSize, 0.2, Duration.ofMillis(100), maxWait)),
+                meterRegistry);
+    }
+
+    private AdaptiveBulkhead bulkhead(Environment environment, String name, int poolSize, double poolShare,
+                                      Duration latencyTarget, Duration maxWait) {
+        String prefix = "bulkhead." + name + ".";
+        double share = environment.getProperty(prefix + "pool-share", Double.class, poolShare);
+        int maxLimit = Math.max(1, (int) (poolSize * share));
+        return new AdaptiveBulkhead(name,
+                environment.getProperty(prefix + "min-limit", Integer.class, 1),
+                environment.getProperty(prefix + "max-limit", Integer.class, maxLimit),
+                environment.getProperty(prefix + "latency-target", Duration.class, latencyTarget),
+                environment.getProperty(prefix + "max-wait", Duration.class, maxWait));
+    }
+}
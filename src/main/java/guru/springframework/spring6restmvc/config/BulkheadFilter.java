@@ -0,0 +1,177 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controller.BeerController;
+import guru.springframework.spring6restmvc.controller.BeerOrderController;
+import guru.springframework.spring6restmvc.controller.CustomerController;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts every API request through the {@link AdaptiveBulkhead} of its endpoint class, so a burst of expensive calls
+ * (name searches, bulk writes) can only hold its own share of the connection pool. Requests that can not get a permit
+ * within the wait budget are shed with 503 and a {@code Retry-After} header.
+ * <p>
+ * Runs inside the {@link SqlMetricsFilter}, whose JDBC time per request drives the limits.
+ */
+@Slf4j
+public class BulkheadFilter extends OncePerRequestFilter implements Ordered {
+    public static final String CATALOG_SEARCH = "catalog-search";
+    public static final String CATALOG_READ = "catalog-read";
+    public static final String CATALOG_WRITE = "catalog-write";
+    public static final String CUSTOMER = "customer";
+    public static final String ORDER = "order";
+
+    private final Map<String, AdaptiveBulkhead> bulkheads = new LinkedHashMap<>();
+    private final Map<String, Timer> admittedTimers = new LinkedHashMap<>();
+    private final Map<String, Timer> rejectedTimers = new LinkedHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new LinkedHashMap<>();
+
+    public BulkheadFilter(List<AdaptiveBulkhead> bulkheads, MeterRegistry meterRegistry) {
+        for (AdaptiveBulkhead bulkhead : bulkheads) {
+            String name = bulkhead.getName();
+            this.bulkheads.put(name, bulkhead);
+
+            admittedTimers.put(name, queueTimer(meterRegistry, name, "admitted"));
+            rejectedTimers.put(name, queueTimer(meterRegistry, name, "rejected"));
+            rejectedCounters.put(name, Counter.builder("bulkhead.rejected")
+                    .tag("bulkhead", name)
+                    .description("Requests shed with 503 because no permit came free within the wait budget")
+                    .register(meterRegistry));
+            Gauge.builder("bulkhead.limit", bulkhead, AdaptiveBulkhead::getLimit)
+                    .tag("bulkhead", name)
+                    .description("Current adaptive concurrency limit")
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.in.flight", bulkhead, AdaptiveBulkhead::getInFlight)
+                    .tag("bulkhead", name)
+                    .description("Requests holding a permit")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return SqlMetricsFilter.ORDER + 1;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveBulkhead bulkhead = bulkheads.get(endpointClass(request));
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        boolean admitted;
+        try {
+            admitted = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        long waitNanos = System.nanoTime() - startTime;
+
+        if (!admitted) {
+            rejectedTimers.get(bulkhead.getName()).record(waitNanos, TimeUnit.NANOSECONDS);
+            rejectedCounters.get(bulkhead.getName()).increment();
+            log.debug("Shedding {} {} - {} bulkhead is full at {}", request.getMethod(), request.getRequestURI(),
+                    bulkhead.getName(), bulkhead.getLimit());
+
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent " + bulkhead.getName() + " requests");
+            return;
+        }
+        admittedTimers.get(bulkhead.getName()).record(waitNanos, TimeUnit.NANOSECONDS);
+
+        boolean released = false;
+        try {
+            filterChain.doFilter(request, response);
+
+            if (request.isAsyncStarted()) {    // streamed bodies keep the permit until they are written
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(bulkhead));
+                released = true;
+            }
+        } finally {
+            if (!released) {
+                bulkhead.release(SqlRequestStats.current().map(SqlRequestStats::getNanos).orElse(-1L));
+            }
+        }
+    }
+
+    AdaptiveBulkhead getBulkhead(String name) {
+        return bulkheads.get(name);
+    }
+
+    static String endpointClass(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean read = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+
+        if (isUnder(path, BeerOrderController.BEER_ORDER_PATH)) {
+            return ORDER;
+        }
+        if (isUnder(path, CustomerController.CUSTOMER_PATH)) {
+            return CUSTOMER;
+        }
+        if (isUnder(path, BeerController.BEER_PATH)) {
+            if (read && request.getParameter("beerName") != null) {
+                return CATALOG_SEARCH;
+            }
+            return read || path.equals(BeerController.BEER_BATCH_GET_PATH) ? CATALOG_READ : CATALOG_WRITE;
+        }
+        return null;
+    }
+
+    private static boolean isUnder(String path, String basePath) {
+        return path.equals(basePath) || path.startsWith(basePath + "/");
+    }
+
+    private static Timer queueTimer(MeterRegistry meterRegistry, String name, String outcome) {
+        return Timer.builder("bulkhead.queue.time")
+                .tag("bulkhead", name)
+                .tag("outcome", outcome)
+                .description("Time waited for a bulkhead permit")
+                .register(meterRegistry);
+    }
+
+    private record ReleasingAsyncListener(AdaptiveBulkhead bulkhead) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            bulkhead.release(-1);    // the body was written on another thread, its JDBC time is not known here
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
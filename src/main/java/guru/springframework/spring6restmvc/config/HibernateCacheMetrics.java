@@ -0,0 +1,74 @@
+package guru.springframework.spring6restmvc.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes second level and query cache hit / miss / put counts and hit ratios per cache region
+ * as {@code hibernate.cache.*} meters.
+ */
+@Component
+@RequiredArgsConstructor
+public class HibernateCacheMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            bindRegion(registry, statistics, region, "hit", CacheRegionStatistics::getHitCount);
+            bindRegion(registry, statistics, region, "miss", CacheRegionStatistics::getMissCount);
+            bindRegion(registry, statistics, region, "put", CacheRegionStatistics::getPutCount);
+            Gauge.builder("hibernate.cache.hit.ratio", statistics, s -> hitRatio(s.getCacheRegionStatistics(region)))
+                    .tag("region", region)
+                    .description("Share of second level cache lookups that were hits, by region")
+                    .register(registry);
+        }
+
+        bindQueryCache(registry, statistics, "hit", Statistics::getQueryCacheHitCount);
+        bindQueryCache(registry, statistics, "miss", Statistics::getQueryCacheMissCount);
+        bindQueryCache(registry, statistics, "put", Statistics::getQueryCachePutCount);
+        Gauge.builder("hibernate.query.cache.hit.ratio", statistics,
+                        s -> hitRatio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                .description("Share of query cache lookups that were hits")
+                .register(registry);
+    }
+
+    private static double hitRatio(CacheRegionStatistics statistics) {
+        return hitRatio(statistics.getHitCount(), statistics.getMissCount());
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    private void bindRegion(MeterRegistry registry, Statistics statistics, String region, String result,
+                            ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.builder("hibernate.cache.requests", statistics,
+                        s -> count.applyAsLong(s.getCacheRegionStatistics(region)))
+                .tag("region", region)
+                .tag("result", result)
+                .description("Second level cache requests by region and outcome")
+                .register(registry);
+    }
+
+    private void bindQueryCache(MeterRegistry registry, Statistics statistics, String result,
+                                ToLongFunction<Statistics> count) {
+        FunctionCounter.builder("hibernate.query.cache.requests", statistics, count::applyAsLong)
+                .tag("result", result)
+                .description("Query cache requests by outcome")
+                .register(registry);
+    }
+}
@@ -0,0 +1,96 @@
+package guru.springframework.spring6restmvc.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single DataSource with a {@link ReadWriteRoutingDataSource} over a Hikari pool for the primary and one
+ * for each of the comma separated {@code datasource.replica.urls}. Every pool takes its settings from
+ * {@code spring.datasource.hikari}; the replicas log in with {@code datasource.replica.username / password}, by
+ * default the primary's. Replicas are only read from while {@code datasource.replica.lag-query} reports them at most
+ * {@code datasource.replica.max-lag} behind.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replica.urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    @Primary
+    DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                          MeterRegistry meterRegistry) {
+        HikariDataSource primary = pool(properties, environment, meterRegistry, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword(), null);
+
+        String username = environment.getProperty("datasource.replica.username", properties.determineUsername());
+        String password = environment.getProperty("datasource.replica.password", properties.determinePassword());
+        List<String> urls = List.of(StringUtils.commaDelimitedListToStringArray(
+                environment.getRequiredProperty("datasource.replica.urls")));
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            replicas.add(pool(properties, environment, meterRegistry, urls.get(i).trim(), username, password,
+                    "-replica-" + i));
+        }
+
+        return new ReadWriteRoutingDataSource(primary, List.copyOf(replicas));
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(DataSource dataSource, Environment environment) throws SQLException {
+        Duration window = readYourWritesWindow(environment);
+        return new ReplicaLagMonitor(dataSource.unwrap(ReadWriteRoutingDataSource.class),    // under the SQL metrics proxy
+                environment.getProperty("datasource.replica.lag-query", "select 0"),
+                environment.getProperty("datasource.replica.max-lag", Duration.class, window),
+                environment.getProperty("datasource.replica.lag-check-interval", Duration.class, Duration.ofSeconds(5)));
+    }
+
+    @Bean
+    ReadYourWritesFilter readYourWritesFilter(Environment environment) {
+        return new ReadYourWritesFilter(readYourWritesWindow(environment));
+    }
+
+    // picked up by the auto-configured applicationTaskExecutor, which writes the StreamingResponseBody of MVC handlers
+    @Bean
+    TaskDecorator readYourWritesTaskDecorator() {
+        return ReadWriteRoutingDataSource::withCurrentPin;
+    }
+
+    private Duration readYourWritesWindow(Environment environment) {
+        return environment.getProperty("datasource.replica.read-your-writes-window", Duration.class,
+                Duration.ofSeconds(5));
+    }
+
+    private HikariDataSource pool(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                  String url, String username, String password, String poolNameSuffix) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+
+        if (poolNameSuffix != null) {
+            String poolName = StringUtils.hasText(dataSource.getPoolName()) ? dataSource.getPoolName() : "HikariPool";
+            dataSource.setPoolName(poolName + poolNameSuffix);
+        }
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,131 @@
+package guru.springframework.spring6restmvc.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to the read replicas, round robin over the ones that are
+ * available, and everything else to the primary. Work on a thread pinned with {@link #pinToPrimary()} always goes to
+ * the primary, so a client reads its own writes even while the replicas lag behind.
+ * <p>
+ * The physical connection is only fetched at the first statement, once the transaction and its read-only flag are
+ * known - a plain routing DataSource would be asked for a connection at transaction begin, before that.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    private static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final AtomicIntegerArray replicaAvailable;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.replicaAvailable = new AtomicIntegerArray(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaAvailable.set(i, 1);
+        }
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+
+        AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return lookupKey();
+            }
+        };
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.setLenientFallback(false);
+        router.afterPropertiesSet();
+
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    // async work such as a streamed response body runs on an executor thread, so it takes the pin of its submitter along
+    public static Runnable withCurrentPin(Runnable task) {
+        if (PINNED_TO_PRIMARY.get() == null) {
+            return task;
+        }
+        return () -> {
+            pinToPrimary();
+            try {
+                task.run();
+            } finally {
+                unpin();
+            }
+        };
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    DataSource getReplica(int index) {
+        return replicas.get(index);
+    }
+
+    boolean isReplicaAvailable(int index) {
+        return replicaAvailable.get(index) == 1;
+    }
+
+    void setReplicaAvailable(int index, boolean available) {
+        if (replicaAvailable.getAndSet(index, available ? 1 : 0) != (available ? 1 : 0)) {
+            log.info("Read replica {} is {}", index, available ? "back in rotation" : "taken out of rotation");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Object lookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || PINNED_TO_PRIMARY.get() != null) {
+            return PRIMARY;
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            if (isReplicaAvailable(index)) {
+                return index;
+            }
+        }
+        return PRIMARY;    // every replica lags too far behind
+    }
+}
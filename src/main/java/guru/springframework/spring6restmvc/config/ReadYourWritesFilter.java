@@ -0,0 +1,66 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controller.BeerController;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Pins writes, and the reads of a client for a while after its last write, to the primary. A write hands the client
+ * a cookie that lives as long as the replicas may take to catch up; requests carrying it are served by the primary.
+ * <p>
+ * The whole request is pinned, not just its transactions: with open-in-view the connection of the first statement
+ * is kept until the response is written, so the routing decision of the first transaction holds for the request.
+ * A streamed body is written on the MVC async executor after this filter has returned; the pin reaches it through
+ * {@link ReadWriteRoutingDataSource#withCurrentPin}, applied as the executor's task decorator.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String COOKIE = "read-primary";
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    // POST only because the request body does not fit a query string - these read, and are served like a GET
+    private static final Set<String> READ_ONLY_POST_PATHS = Set.of(BeerController.BEER_BATCH_GET_PATH);
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean write = WRITE_METHODS.contains(request.getMethod()) && !isReadOnlyPost(request);
+        if (!write && WebUtils.getCookie(request, COOKIE) == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) window.toSeconds());
+            response.addCookie(cookie);    // before the body is written and the response committed
+        }
+
+        ReadWriteRoutingDataSource.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.unpin();
+        }
+    }
+
+    private static boolean isReadOnlyPost(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return "POST".equals(request.getMethod()) && READ_ONLY_POST_PATHS.contains(path);
+    }
+}
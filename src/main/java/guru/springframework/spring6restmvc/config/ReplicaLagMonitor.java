@@ -0,0 +1,72 @@
+package guru.springframework.spring6restmvc.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the lag query on every read replica on a fixed interval and takes replicas that lag more than {@code maxLag}
+ * behind the primary, or can not answer, out of the rotation until they catch up. The query returns the lag in
+ * seconds, e.g. {@code Seconds_Behind_Source} of the replication status or the age of a heartbeat row.
+ * <p>
+ * The first check runs before the application takes traffic.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+
+    private ScheduledExecutorService checker;
+
+    public ReplicaLagMonitor(ReadWriteRoutingDataSource routingDataSource, String lagQuery, Duration maxLag,
+                             Duration checkInterval) {
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+
+    @PostConstruct
+    void startChecker() {
+        checkReplicaLag();
+        checker = Executors.newSingleThreadScheduledExecutor();
+        checker.scheduleWithFixedDelay(this::checkReplicaLag, checkInterval.toNanos(), checkInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void stopChecker() {
+        checker.shutdown();
+    }
+
+    public void checkReplicaLag() {
+        for (int i = 0; i < routingDataSource.getReplicaCount(); i++) {
+            routingDataSource.setReplicaAvailable(i, lagSeconds(i) <= maxLag.toSeconds());
+        }
+    }
+
+    private double lagSeconds(int replica) {
+        try (Connection connection = routingDataSource.getReplica(replica).getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next() || resultSet.getObject(1) == null) {
+                return Double.MAX_VALUE;    // replication is not running
+            }
+            return resultSet.getDouble(1);
+        } catch (SQLException e) {
+            log.debug("Lag check of read replica {} failed: {}", replica, e.getMessage());
+            return Double.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.services.BeerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Times every method of the service layer interfaces ({@code BeerService}, {@code CustomerService}, ...) as
+ * {@code service.method} tagged with service, method and exception. Percentile histograms are switched on per meter
+ * name in application.properties.
+ */
+@Component
+public class ServiceMetricsPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    private static final String SERVICES_PACKAGE = BeerService.class.getPackageName();
+
+    public ServiceMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        ComposablePointcut pointcut = new ComposablePointcut((ClassFilter) clazz -> serviceInterface(clazz).isPresent())
+                .intersection(new StaticMethodMatcher() {
+                    @Override
+                    public boolean matches(Method method, Class<?> targetClass) {
+                        return serviceInterface(targetClass)
+                                .map(service -> ReflectionUtils.findMethod(service, method.getName(), method.getParameterTypes()) != null)
+                                .orElse(false);
+                    }
+                });
+
+        this.advisor = new DefaultPointcutAdvisor(pointcut, new ServiceMethodTimer(meterRegistry));
+        setBeforeExistingAdvisors(true);    // the timer also covers the transaction around the method
+        setProxyTargetClass(true);    // keeps the bean assignable to its own class, like the other proxies in the context
+    }
+
+    static Optional<Class<?>> serviceInterface(Class<?> clazz) {
+        return Arrays.stream(ClassUtils.getAllInterfacesForClass(clazz))
+                .filter(type -> type.getPackageName().equals(SERVICES_PACKAGE) && type.getSimpleName().endsWith("Service"))
+                .findFirst();
+    }
+
+    private record ServiceMethodTimer(ObjectProvider<MeterRegistry> meterRegistry) implements MethodInterceptor {
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return invocation.proceed();
+            }
+
+            Timer.Sample sample = Timer.start(registry);
+            String exception = "none";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                Method method = invocation.getMethod();
+                sample.stop(Timer.builder("service.method")
+                        .tag("service", serviceInterface(AopUtils.getTargetClass(invocation.getThis()))
+                                .map(Class::getSimpleName)
+                                .orElse(method.getDeclaringClass().getSimpleName()))
+                        .tag("method", method.getName())
+                        .tag("exception", exception)
+                        .description("Service layer method calls")
+                        .register(registry));
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package guru.springframework.spring6restmvc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the DataSource in a datasource-proxy so every statement is counted and timed, and registers the
+ * {@link SqlMetricsFilter} that reports them per request.
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    SqlMetricsFilter sqlMetricsFilter(MeterRegistry meterRegistry,
+                                      @Value("${sql.metrics.server-timing:false}") boolean serverTiming) {
+        return new SqlMetricsFilter(meterRegistry, serverTiming);
+    }
+
+    @Bean
+    static BeanPostProcessor sqlMetricsDataSourcePostProcessor(
+            @Value("${sql.metrics.slow-query-threshold:100ms}") Duration slowQueryThreshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new SqlMetricsListener(slowQueryThreshold))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
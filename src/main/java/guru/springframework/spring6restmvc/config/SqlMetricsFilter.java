@@ -0,0 +1,137 @@
+package guru.springframework.spring6restmvc.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the statement count, JDBC time and slow statements of every request as meters tagged with the handling
+ * controller method, and optionally reports them to the client in a {@code Server-Timing} header.
+ */
+public class SqlMetricsFilter extends OncePerRequestFilter implements Ordered {
+    public static final String SERVER_TIMING = "Server-Timing";
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;    // outside the filters that read the stats
+
+    private final MeterRegistry meterRegistry;
+    private final boolean serverTiming;
+
+    public SqlMetricsFilter(MeterRegistry meterRegistry, boolean serverTiming) {
+        this.meterRegistry = meterRegistry;
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.start();
+        ServerTimingResponse timingResponse = serverTiming ? new ServerTimingResponse(response, stats) : null;
+
+        try {
+            filterChain.doFilter(request, timingResponse != null ? timingResponse : response);
+        } finally {
+            SqlRequestStats.end();
+            if (timingResponse != null) {
+                timingResponse.addServerTiming();    // responses without a body never asked for the output stream
+            }
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlRequestStats stats) {
+        if (!(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        String handler = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tag("handler", handler)
+                .description("JDBC statements per request")
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .tag("handler", handler)
+                .description("Time spent in JDBC per request")
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        if (stats.getSlowStatements() > 0) {
+            Counter.builder("http.server.requests.sql.slow")
+                    .tag("handler", handler)
+                    .description("Statements over sql.metrics.slow-query-threshold")
+                    .register(meterRegistry)
+                    .increment(stats.getSlowStatements());
+        }
+    }
+
+    /**
+     * Adds the header right before the body or an error starts, the last moment headers can still be set.
+     */
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final SqlRequestStats stats;
+        private boolean added;
+
+        ServerTimingResponse(HttpServletResponse response, SqlRequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        void addServerTiming() {
+            if (added || isCommitted()) {
+                return;
+            }
+            added = true;
+            addHeader(SERVER_TIMING, String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d statements\"",
+                    stats.getNanos() / 1_000_000.0, stats.getStatements()));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package guru.springframework.spring6restmvc.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC execution (a whole batch counts once) into the {@link SqlRequestStats} of the current request
+ * and logs the ones slower than the threshold.
+ */
+@Slf4j
+class SqlMetricsListener implements QueryExecutionListener {
+    private static final String START_NANOS = "startNanos";
+
+    private final long slowQueryNanos;
+
+    SqlMetricsListener(Duration slowQueryThreshold) {
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedNanos = System.nanoTime() - execInfo.getCustomValue(START_NANOS, Long.class);
+        boolean slow = elapsedNanos >= slowQueryNanos;
+
+        if (slow) {
+            // statement text only - bind values can carry customer data
+            log.warn("Slow SQL ({} ms{}): {}", Duration.ofNanos(elapsedNanos).toMillis(),
+                    execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                    queryInfoList.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; ")));
+        }
+
+        SqlRequestStats.current().ifPresent(stats -> stats.record(elapsedNanos, slow));
+    }
+}
@@ -0,0 +1,40 @@
+package guru.springframework.spring6restmvc.config;
+
+import lombok.Getter;
+
+import java.util.Optional;
+
+/**
+ * JDBC statements run by the request on the current thread. Work handed to other threads, like the body of a
+ * streamed export, is not counted.
+ */
+@Getter
+public class SqlRequestStats {
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int slowStatements;
+    private long nanos;
+
+    static SqlRequestStats start() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static Optional<SqlRequestStats> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    void record(long elapsedNanos, boolean slow) {
+        statements++;
+        nanos += elapsedNanos;
+        if (slow) {
+            slowStatements++;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package guru.springframework.spring6restmvc.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Opt-in request execution on virtual threads: with {@code spring.threads.virtual.enabled=true} Spring Boot hands
+ * every Tomcat request to a new virtual thread instead of its platform thread pool. Nothing bounds those requests any
+ * more, so the DataSource is put behind a {@link ConnectionLimitingDataSource} and they queue for connections in order.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            @Value("${datasource.connection-limit:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${datasource.connection-limit-timeout:30s}") Duration timeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, permits, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerBulkJobDTO;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.services.BeerBulkService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+public class BeerBulkController {
+
+    public static final String BEER_BULK_PATH = BeerController.BEER_PATH + "/bulk";
+    public static final String BEER_BULK_PATH_ID = BEER_BULK_PATH + "/{jobId}";
+    private final BeerBulkService beerBulkService;
+
+    @PostMapping(value = BEER_BULK_PATH, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity handleBulkPost(@RequestBody List<BeerDTO> beers) {    // rows are validated one by one in the job, so a bad row is reported instead of failing the whole request
+        return accepted(beerBulkService.submitBeers(beers));
+    }
+
+    @PostMapping(value = BEER_BULK_PATH, consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity handleBulkCsvPost(@RequestParam("file") MultipartFile file) {
+        return accepted(beerBulkService.submitCsv(file));
+    }
+
+    @GetMapping(BEER_BULK_PATH_ID)
+    public BeerBulkJobDTO getBulkJobById(@PathVariable("jobId") UUID jobId) {
+        return beerBulkService.getJobById(jobId).orElseThrow(NotFoundException::new);
+    }
+
+    private ResponseEntity accepted(BeerBulkJobDTO job) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Location", BEER_BULK_PATH + "/" + job.getJobId());
+
+        return new ResponseEntity(job, headers, HttpStatus.ACCEPTED);
+    }
+}
@@ -1,18 +1,25 @@
 package guru.springframework.spring6restmvc.controller;
 
+import guru.springframework.spring6restmvc.exceptions.BadRequestException;
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerBatchResultDTO;
+import guru.springframework.spring6restmvc.model.BeerCursorPageDTO;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
 import guru.springframework.spring6restmvc.model.BeerStyle;
 import guru.springframework.spring6restmvc.services.BeerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Slf4j
@@ -22,11 +29,15 @@ public class BeerController {
 
     public static final String BEER_PATH = "/api/v1/beer";
     public static final String BEER_PATH_ID = BEER_PATH + "/{beerId}";
+    public static final String BEER_BATCH_GET_PATH = BEER_PATH + "/batch-get";
+    public static final int BATCH_GET_MAX_IDS = 1000;
     private final BeerService beerService;
 
     @PatchMapping(BEER_PATH_ID)
-    public ResponseEntity updateBeerPatchById(@PathVariable("beerId") UUID beerId, @RequestBody BeerDTO beer) {
-        if(beerService.patchBeerById(beerId, beer).isEmpty()) {
+    public ResponseEntity updateBeerPatchById(@PathVariable("beerId") UUID beerId,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody BeerDTO beer) {
+        if(beerService.patchBeerById(beerId, beer, EntityTags.ifMatchVersion(ifMatch)).isEmpty()) {
             throw new NotFoundException();
         }
 
@@ -43,8 +54,10 @@ public class BeerController {
     }
 
     @PutMapping(BEER_PATH_ID)
-    public ResponseEntity updateById(@PathVariable("beerId") UUID beerId, @Validated @RequestBody BeerDTO beer) {
-        if(beerService.updateBeerById(beerId, beer).isEmpty())  {
+    public ResponseEntity updateById(@PathVariable("beerId") UUID beerId,
+                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                     @Validated @RequestBody BeerDTO beer) {
+        if(beerService.updateBeerById(beerId, beer, EntityTags.ifMatchVersion(ifMatch)).isEmpty())  {
             throw new NotFoundException();
         }
 
@@ -63,18 +76,60 @@ public class BeerController {
 
     @GetMapping(BEER_PATH)
     public Page<BeerDTO> listBeers(@RequestParam(required = false) String beerName,
+                                   @RequestParam(required = false) BeerSearchMode searchMode,    // defaults to CONTAINS
                                    @RequestParam(required = false) BeerStyle beerStyle,
                                    @RequestParam(required = false) Boolean showInventory,
                                    @RequestParam(required = false) Integer pageNumber,
                                    @RequestParam(required = false) Integer pageSize) {
-        return beerService.getAllBeers(beerName, beerStyle, showInventory, pageNumber, pageSize);
+        return beerService.getAllBeers(beerName, searchMode, beerStyle, showInventory, pageNumber, pageSize);
+    }
+
+    @GetMapping(value = BEER_PATH, params = {"includeTotal=false", "!cursor"})
+    public Slice<BeerDTO> listBeersWithoutTotal(@RequestParam(required = false) String beerName,
+                                                @RequestParam(required = false) BeerSearchMode searchMode,
+                                                @RequestParam(required = false) BeerStyle beerStyle,
+                                                @RequestParam(required = false) Boolean showInventory,
+                                                @RequestParam(required = false) Integer pageNumber,
+                                                @RequestParam(required = false) Integer pageSize) {
+        return beerService.getBeerSlice(beerName, searchMode, beerStyle, showInventory, pageNumber, pageSize);
+    }
+
+    @GetMapping(value = BEER_PATH, params = "cursor")
+    public BeerCursorPageDTO listBeersByCursor(@RequestParam(required = false) String beerName,
+                                               @RequestParam(required = false) BeerSearchMode searchMode,
+                                               @RequestParam(required = false) BeerStyle beerStyle,
+                                               @RequestParam(required = false) Boolean showInventory,
+                                               @RequestParam(required = false) String cursor,    // empty cursor starts from the first beer
+                                               @RequestParam(required = false) Integer pageSize) {
+        return beerService.getBeersAfter(beerName, searchMode, beerStyle, showInventory, cursor, pageSize);
+    }
+
+    @PostMapping(BEER_BATCH_GET_PATH)
+    public BeerBatchResultDTO getBeersByIds(@RequestBody List<UUID> beerIds) {
+        if (beerIds.size() > BATCH_GET_MAX_IDS) {
+            throw new BadRequestException("At most " + BATCH_GET_MAX_IDS + " ids per request");
+        }
+        if (beerIds.stream().anyMatch(Objects::isNull)) {    // contains(null) throws on immutable lists
+            throw new BadRequestException("Beer ids must not be null");
+        }
+
+        return beerService.getBeersByIds(beerIds);
     }
 
     @GetMapping(BEER_PATH_ID)
-    public BeerDTO getBeerById(@PathVariable("beerId") UUID beerId) {
+    public ResponseEntity<BeerDTO> getBeerById(@PathVariable("beerId") UUID beerId,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         log.debug("Get Beer by Id - in controller");
 
-        return beerService.getBeerById(beerId).orElseThrow(NotFoundException::new);
+        if (ifNoneMatch != null) {
+            Integer version = beerService.getBeerVersion(beerId).orElseThrow(NotFoundException::new);
+            if (EntityTags.noneMatchHit(ifNoneMatch, version)) {    // unchanged - nothing is loaded, mapped or serialized
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EntityTags.of(version)).build();
+            }
+        }
+
+        BeerDTO beer = beerService.getBeerById(beerId).orElseThrow(NotFoundException::new);
+        return EntityTags.ok(beer, beer.getVersion(), beer.getUpdateDate());
     }
 }
@@ -0,0 +1,40 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.model.BeerExportFormat;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.services.BeerExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+public class BeerExportController {
+
+    public static final String BEER_EXPORT_PATH = BeerController.BEER_PATH + "/export";
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private final BeerExportService beerExportService;
+
+    @GetMapping(BEER_EXPORT_PATH)
+    public ResponseEntity<StreamingResponseBody> exportBeers(@RequestParam(required = false) BeerStyle beerStyle,
+                                                             @RequestParam(defaultValue = "NDJSON") BeerExportFormat format) {
+        // the body is written after the handler returns, on an async thread that opens its own read-only transaction
+        if (format == BeerExportFormat.CSV) {
+            return ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .header("Content-Disposition", ContentDisposition.attachment().filename("beers.csv").build().toString())
+                    .body(outputStream -> beerExportService.exportCsv(beerStyle, outputStream));
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> beerExportService.exportNdjson(beerStyle, outputStream));
+    }
+}
@@ -0,0 +1,37 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.model.BeerInventoryAdjustmentDTO;
+import guru.springframework.spring6restmvc.services.BeerInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+public class BeerInventoryController {
+
+    public static final String BEER_INVENTORY_PATH = BeerController.BEER_PATH_ID + "/inventory";
+    private final BeerInventoryService beerInventoryService;
+
+    @PostMapping(BEER_INVENTORY_PATH)
+    public ResponseEntity adjustInventory(@PathVariable("beerId") UUID beerId,
+                                          @RequestParam(defaultValue = "false") boolean coalesce,    // true shares one row update per flush with other requests
+                                          @Validated @RequestBody BeerInventoryAdjustmentDTO adjustment) {
+        if (coalesce) {
+            beerInventoryService.adjustInventoryCoalesced(beerId, adjustment.getDelta());
+        } else {
+            beerInventoryService.adjustInventory(beerId, adjustment.getDelta());
+        }
+        return new ResponseEntity(HttpStatus.NO_CONTENT);
+    }
+}
@@ -0,0 +1,44 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+public class BeerOrderController {
+
+    public static final String BEER_ORDER_PATH = "/api/v1/beer-order";
+    public static final String BEER_ORDER_PATH_ID = BEER_ORDER_PATH + "/{beerOrderId}";
+    private final BeerOrderService beerOrderService;
+
+    @PostMapping(BEER_ORDER_PATH)
+    public ResponseEntity<BeerOrderDTO> handlePost(@Validated @RequestBody BeerOrderCreateDTO beerOrder) {
+        BeerOrderDTO savedBeerOrder = beerOrderService.placeOrder(beerOrder);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Location", BEER_ORDER_PATH + "/" + savedBeerOrder.getId());
+
+        return new ResponseEntity<>(savedBeerOrder, headers, HttpStatus.CREATED);
+    }
+
+    @GetMapping(BEER_ORDER_PATH_ID)
+    public BeerOrderDTO getBeerOrderById(@PathVariable("beerOrderId") UUID beerOrderId) {
+        return beerOrderService.getBeerOrderById(beerOrderId).orElseThrow(NotFoundException::new);
+    }
+}
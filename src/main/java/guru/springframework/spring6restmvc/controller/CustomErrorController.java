@@ -19,19 +19,25 @@ public class CustomErrorController {
         ResponseEntity.BodyBuilder responseEntity = ResponseEntity.badRequest();
 
         if (exception.getCause().getCause() instanceof ConstraintViolationException) {
-            ConstraintViolationException ve = (ConstraintViolationException) exception.getCause().getCause();
-
-            List errors = ve.getConstraintViolations().stream()
-                    .map(constraintViolation ->
-                        Map.of(constraintViolation.getPropertyPath().toString(),
-                                constraintViolation.getMessage())
-                        ).collect(Collectors.toList());
-            return responseEntity.body(errors);
+            return responseEntity.body(violations((ConstraintViolationException) exception.getCause().getCause()));
         }
 
         return responseEntity.build();
     }
 
+    @ExceptionHandler
+    ResponseEntity handleFlushedJPAViolations(ConstraintViolationException exception) {    // writes flushed inside the service fail before the commit
+        return ResponseEntity.badRequest().body(violations(exception));
+    }
+
+    private List violations(ConstraintViolationException exception) {
+        return exception.getConstraintViolations().stream()
+                .map(constraintViolation ->
+                    Map.of(constraintViolation.getPropertyPath().toString(),
+                            constraintViolation.getMessage())
+                    ).collect(Collectors.toList());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     ResponseEntity handleBindErrors(MethodArgumentNotValidException exception) {
 
@@ -0,0 +1,37 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.exceptions.BadRequestException;
+import guru.springframework.spring6restmvc.model.CustomerBatchItemResult;
+import guru.springframework.spring6restmvc.model.CustomerBatchOperation;
+import guru.springframework.spring6restmvc.services.CustomerBatchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Objects;
+
+@Slf4j
+@RequiredArgsConstructor
+@RestController
+public class CustomerBatchController {
+
+    public static final String CUSTOMER_BATCH_PATH = CustomerController.CUSTOMER_PATH + "/batch";
+    public static final int BATCH_MAX_OPERATIONS = 50000;
+    private final CustomerBatchService customerBatchService;
+
+    @PostMapping(CUSTOMER_BATCH_PATH)
+    public List<CustomerBatchItemResult> handleBatch(@RequestBody List<CustomerBatchOperation> operations) {    // a bad operation is reported in its result instead of failing the request
+        if (operations.size() > BATCH_MAX_OPERATIONS) {
+            throw new BadRequestException("At most " + BATCH_MAX_OPERATIONS + " operations per request");
+        }
+        // a null entry has nothing to report a result against, so the whole batch is rejected with 400 before any is applied
+        if (operations.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Operations must not be null");
+        }
+
+        return customerBatchService.applyOperations(operations);
+    }
+}
@@ -1,12 +1,16 @@
 package guru.springframework.spring6restmvc.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
 import guru.springframework.spring6restmvc.model.CustomerDTO;
 import guru.springframework.spring6restmvc.services.CustomerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,9 +20,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 
 @Slf4j
@@ -29,11 +37,13 @@ public class CustomerController {
     public static final String CUSTOMER_PATH = "/api/v1/customer";
     public static final String CUSTOMER_PATH_ID = CUSTOMER_PATH + "/{customerId}";
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
     @PatchMapping(CUSTOMER_PATH_ID)
     public ResponseEntity updateCustomerPatchById(@PathVariable("customerId") UUID customerId,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                   @RequestBody CustomerDTO customer) {
-        if(customerService.patchCustomerById(customerId, customer).isEmpty()) {
+        if(customerService.patchCustomerById(customerId, customer, EntityTags.ifMatchVersion(ifMatch)).isEmpty()) {
             throw new NotFoundException();
         }
 
@@ -51,8 +61,9 @@ public class CustomerController {
 
     @PutMapping(CUSTOMER_PATH_ID)
     public ResponseEntity updateCustomerById(@PathVariable("customerId") UUID customerId,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                              @Validated @RequestBody CustomerDTO customer) {
-        if(customerService.updateCustomerById(customerId, customer).isEmpty()) {
+        if(customerService.updateCustomerById(customerId, customer, EntityTags.ifMatchVersion(ifMatch)).isEmpty()) {
             throw new NotFoundException();
         }
 
@@ -70,14 +81,45 @@ public class CustomerController {
     }
 
     @GetMapping(CUSTOMER_PATH)
-    public List<CustomerDTO> listAllCustomers() {
-        return customerService.getAllCustomers();
+    public Page<CustomerDTO> listAllCustomers(@RequestParam(required = false) Integer pageNumber,
+                                              @RequestParam(required = false) Integer pageSize) {
+        return customerService.getAllCustomers(pageNumber, pageSize);
+    }
+
+    @GetMapping(value = CUSTOMER_PATH, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(CustomerDTO.class)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                customerService.streamAllCustomers(customer -> {
+                    try {
+                        writer.write(customer);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping(CUSTOMER_PATH_ID)
-    public CustomerDTO getCustomerById(@PathVariable("customerId") UUID customerId) {
+    public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable("customerId") UUID customerId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("Get Customer by Id - in controller");
 
-        return customerService.getCustomerById(customerId).orElseThrow(NotFoundException::new);
+        if (ifNoneMatch != null) {
+            Integer version = customerService.getCustomerVersion(customerId).orElseThrow(NotFoundException::new);
+            if (EntityTags.noneMatchHit(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(EntityTags.of(version)).build();
+            }
+        }
+
+        CustomerDTO customer = customerService.getCustomerById(customerId).orElseThrow(NotFoundException::new);
+        return EntityTags.ok(customer, customer.getVersion(), customer.getLastModifiedDate());
     }
 }
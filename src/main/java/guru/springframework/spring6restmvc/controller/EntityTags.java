@@ -0,0 +1,67 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.exceptions.PreconditionFailedException;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Strong ETags built from the entity {@code @Version}, so conditional requests can be answered
+ * from a version only query.
+ */
+final class EntityTags {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final Pattern STRONG_VERSION_TAG = Pattern.compile("\"(\\d{1,9})\"");
+
+    private EntityTags() {
+    }
+
+    static String of(Integer version) {
+        return "\"" + version + "\"";
+    }
+
+    static <T> ResponseEntity<T> ok(T body, Integer version, LocalDateTime lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (version != null) {
+            builder.eTag(of(version));
+        }
+        if (lastModified != null) {
+            builder.lastModified(lastModified.atZone(ZoneId.systemDefault()));
+        }
+        return builder.body(body);
+    }
+
+    // If-None-Match uses the weak comparison, so W/"3" still matches version 3
+    static boolean noneMatchHit(String ifNoneMatch, Integer version) {
+        return version != null && Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(of(version)));
+    }
+
+    // the version an If-Match write has to go ahead against, null without a precondition or for "*" - the service
+    // compares it with the row it writes in the same transaction. If-Match uses the strong comparison, so weak tags
+    // never match; clients send the one tag they have seen, lists naming several versions are not supported
+    static Integer ifMatchVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+
+        List<String> tags = Arrays.stream(ifMatch.split(",")).map(String::trim).toList();
+        if (tags.contains("*")) {
+            return null;
+        }
+
+        Matcher matcher = STRONG_VERSION_TAG.matcher(tags.get(0));
+        if (tags.size() != 1 || !matcher.matches()) {
+            throw new PreconditionFailedException();
+        }
+        return Integer.valueOf(matcher.group(1));
+    }
+}
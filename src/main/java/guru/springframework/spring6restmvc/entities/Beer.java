@@ -1,14 +1,18 @@
 package guru.springframework.spring6restmvc.entities;
 
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -18,11 +22,10 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -34,14 +37,18 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        @Index(name = "beer_name_id_idx", columnList = "beerName, id"),
+        @Index(name = "beer_style_name_id_idx", columnList = "beerStyle, beerName, id"),    // style filter already in listing order
+        @Index(name = "beer_search_name_idx", columnList = "searchName")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beer")    // cached state carries @Version, stale puts lose to newer versions
 @AllArgsConstructor
 @NoArgsConstructor
 public class Beer {
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @TimeOrderedUuid    // id is assigned in memory at persist time, so inserts stay eligible for JDBC batching
+    @Column(updatable = false, nullable = false)
     private UUID id;
     @Version
     private Integer version;
@@ -52,6 +59,17 @@ public class Beer {
     @Column(length = 50)
     private String beerName;
 
+    @Column(length = 50)
+    private String searchName;    // lower case copy of beerName, indexed for prefix search
+
+    @Builder.Default
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beer-name-tokens")
+    @ElementCollection
+    @CollectionTable(name = "beer_name_token", joinColumns = @JoinColumn(name = "beer_id"),
+            indexes = @Index(name = "bnt_token_beer_id_idx", columnList = "token, beer_id"))    // searches start from a token
+    @Column(name = "token", length = BeerNameTokens.TOKEN_LENGTH)
+    private Set<String> nameTokens = new HashSet<>();
+
     @NotNull
     private BeerStyle beerStyle;
 
@@ -73,12 +91,41 @@ public class Beer {
     private Set<BeerOrderLine> beerOrderLines;
 
     @Builder.Default
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beer-categories")
     @ManyToMany
     @JoinTable(name = "beer_category",
             joinColumns = @JoinColumn(name = "beer_id"),
-            inverseJoinColumns = @JoinColumn(name = "category_id"))
+            inverseJoinColumns = @JoinColumn(name = "category_id"),
+            indexes = @Index(name = "bc_category_id_idx", columnList = "category_id"))
     private Set<Category> categories = new HashSet<>();
 
+    public void setBeerName(String beerName) {
+        this.beerName = beerName;
+        updateSearchIndex();
+    }
+
+    @PrePersist
+    public void updateSearchIndex() {    // the builder bypasses setBeerName, so new beers are indexed right before insert
+        this.searchName = BeerNameTokens.normalize(beerName);
+
+        Set<String> tokens = BeerNameTokens.of(beerName);
+        if (nameTokens == null) {
+            nameTokens = new HashSet<>();
+        }
+        nameTokens.retainAll(tokens);
+        nameTokens.addAll(tokens);
+    }
+
+    // false leaves the stock as it is - a change may not take it below zero or past Integer.MAX_VALUE
+    public boolean adjustQuantityOnHand(long delta) {
+        long adjusted = (quantityOnHand == null ? 0L : quantityOnHand) + delta;
+        if (adjusted < 0 || adjusted > Integer.MAX_VALUE) {
+            return false;
+        }
+        this.quantityOnHand = (int) adjusted;
+        return true;
+    }
+
     public void addCategory(Category category) {
         this.categories.add(category);
         category.getBeers().add(this);
@@ -0,0 +1,39 @@
+package guru.springframework.spring6restmvc.entities;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+// beer names are indexed as lower case trigrams, so a "contains" search can be answered from the token index
+public final class BeerNameTokens {
+
+    public static final int TOKEN_LENGTH = 3;
+
+    private BeerNameTokens() {
+    }
+
+    public static String normalize(String beerName) {
+        return beerName == null ? null : beerName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static Set<String> of(String beerName) {
+        Set<String> tokens = new LinkedHashSet<>();
+        String normalized = normalize(beerName);
+
+        if (normalized != null) {
+            for (int i = 0; i + TOKEN_LENGTH <= normalized.length(); i++) {
+                tokens.add(normalized.substring(i, i + TOKEN_LENGTH));
+            }
+        }
+        return tokens;
+    }
+
+    public static Set<String> ofWords(String query) {    // every word is tokenized on its own, so words match in any order
+        Set<String> tokens = new LinkedHashSet<>();
+
+        Arrays.stream(normalize(query).split("\\s+"))
+                .forEach(word -> tokens.addAll(of(word)));
+        return tokens;
+    }
+}
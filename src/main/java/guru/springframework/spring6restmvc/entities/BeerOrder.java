@@ -3,21 +3,25 @@ package guru.springframework.spring6restmvc.entities;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.GenericGenerator;
-import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.hibernate.type.SqlTypes;
 
 import java.sql.Timestamp;
 import java.util.Set;
@@ -26,9 +30,18 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        @Index(name = "bo_customer_id_idx", columnList = "customer_id"),
+        @Index(name = "bo_shipment_id_idx", columnList = "beer_order_shipment_id")
+})
+@NamedEntityGraph(name = BeerOrder.WITH_LINES_AND_BEERS,
+        attributeNodes = @NamedAttributeNode(value = "beerOrderLines", subgraph = "lines"),
+        subgraphs = @NamedSubgraph(name = "lines", attributeNodes = @NamedAttributeNode("beer")))
 @NoArgsConstructor
 @Builder
 public class BeerOrder {
+    public static final String WITH_LINES_AND_BEERS = "BeerOrder.withLinesAndBeers";
+
 
     public BeerOrder(UUID id, Long version, Timestamp createdDate, Timestamp lastModifiedDate, String customerRef,
                      Customer customer, Set<BeerOrderLine> beerOrderLines, BeerOrderShipment beerOrderShipment) {
@@ -43,10 +56,8 @@ public class BeerOrder {
     }
 
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)", updatable = false, nullable = false)
+    @TimeOrderedUuid
+    @Column(updatable = false, nullable = false)
     private UUID id;
     @Version
     private Long version;
@@ -60,21 +71,26 @@ public class BeerOrder {
         return this.id == null;
     }
     private String customerRef;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
 
     public void setCustomer(Customer customer) {
         this.customer = customer;
-        customer.getBeerOrders().add(this);
+        if (customer != null && Hibernate.isInitialized(customer.getBeerOrders())) {    // never loads every order of the customer just to add one
+            customer.getBeerOrders().add(this);
+        }
     }
 
     public void setBeerOrderShipment(BeerOrderShipment beerOrderShipment) {
         this.beerOrderShipment = beerOrderShipment;
-        beerOrderShipment.setBeerOrder(this);
+        if (beerOrderShipment != null) {
+            beerOrderShipment.setBeerOrder(this);
+        }
     }
+    @OrderBy("id")    // line ids are time ordered, so this is the order they were placed in
     @OneToMany(mappedBy = "beerOrder")
     private Set<BeerOrderLine> beerOrderLines;
 
-    @OneToOne(cascade = CascadeType.PERSIST)    // tells Hibernate "when I save the BeerOrder Entity, if it has an unsaved Entity on it (Owned), to go ahead and persist that unsaved Entity as well" - this saves us from additional coding allows Hibernate to manage these properties.
+    @OneToOne(cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)    // tells Hibernate "when I save the BeerOrder Entity, if it has an unsaved Entity on it (Owned), to go ahead and persist that unsaved Entity as well" - this saves us from additional coding allows Hibernate to manage these properties.
     private BeerOrderShipment beerOrderShipment;
 }
@@ -0,0 +1,40 @@
+package guru.springframework.spring6restmvc.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimeOrderedUuidGenerator implements IdentifierGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+
+    // unix millis in the high bits, a per millisecond sequence in the low 12 bits - values never go backwards in this JVM
+    private static final AtomicLong LAST_TIMESTAMP_AND_SEQUENCE = new AtomicLong();
+
+    public TimeOrderedUuidGenerator(TimeOrderedUuid config, Member idMember,
+                                    CustomIdGeneratorCreationContext creationContext) {
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return nextUuid();
+    }
+
+    public static UUID nextUuid() {
+        long now = System.currentTimeMillis() << SEQUENCE_BITS;
+        long timestampAndSequence = LAST_TIMESTAMP_AND_SEQUENCE.updateAndGet(last -> Math.max(last + 1, now));
+
+        long millis = timestampAndSequence >>> SEQUENCE_BITS;
+        long sequence = timestampAndSequence & ((1L << SEQUENCE_BITS) - 1);
+
+        long mostSigBits = (millis << 16) | (0x7L << 12) | sequence;    // 48 bit timestamp, version 7, 12 bit sequence
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;    // IETF variant
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
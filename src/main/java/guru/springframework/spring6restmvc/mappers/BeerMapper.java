@@ -2,12 +2,19 @@ package guru.springframework.spring6restmvc.mappers;
 
 import guru.springframework.spring6restmvc.entities.Beer;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.repositories.BeerSummary;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper
 public interface BeerMapper {
 
+    @Mapping(target = "searchName", ignore = true)
+    @Mapping(target = "nameTokens", ignore = true)
     Beer beerDtoToBeer(BeerDTO dto);
 
     BeerDTO beerToBeerDto(Beer beer);
-}
\ No newline at end of file
+
+    @Mapping(target = "quantityOnHand", ignore = true)
+    BeerDTO beerSummaryToBeerDto(BeerSummary beerSummary);
+}
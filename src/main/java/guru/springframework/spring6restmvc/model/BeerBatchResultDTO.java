@@ -0,0 +1,14 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+@Data
+public class BeerBatchResultDTO {
+    private List<BeerDTO> beers;    // in request order, each id once
+    private List<UUID> missingIds;
+}
@@ -0,0 +1,22 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+@Data
+public class BeerBulkJobDTO {
+    private UUID jobId;
+    private BeerBulkJobStatus status;
+    private long rowsProcessed;
+    private long rowsAccepted;
+    private long rowsRejected;
+    private List<BeerBulkRowError> rejectedRows;
+    private String failureMessage;
+    private LocalDateTime createdDate;
+    private LocalDateTime completedDate;
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,4 +40,8 @@ public class BeerCSVRecord {
     private String state;
     @CsvBindByName
     private String label;
+    @CsvBindByName
+    private String upc;    // upc and price are only in exported files, the original data set has no such columns
+    @CsvBindByName
+    private BigDecimal price;
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Builder
+@Data
+public class BeerCsvImportResult {
+    private long rowsImported;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,16 @@
+package guru.springframework.spring6restmvc.model;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerInventoryAdjustmentDTO {
+    @NotNull
+    private Integer delta;    // positive to restock, negative to take stock out
+}
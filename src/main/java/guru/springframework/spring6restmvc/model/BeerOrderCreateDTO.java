@@ -0,0 +1,26 @@
+package guru.springframework.spring6restmvc.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerOrderCreateDTO {
+    @NotNull
+    private UUID customerId;
+
+    private String customerRef;
+
+    @NotEmpty
+    private List<@NotNull @Valid BeerOrderLineCreateDTO> beerOrderLines;
+}
@@ -0,0 +1,22 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerOrderDTO {
+    private UUID id;
+    private Long version;
+    private UUID customerId;
+    private String customerRef;
+    private List<BeerOrderLineDTO> beerOrderLines;
+    private UUID beerOrderShipmentId;
+}
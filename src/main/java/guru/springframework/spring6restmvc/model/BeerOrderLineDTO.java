@@ -0,0 +1,19 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerOrderLineDTO {
+    private UUID id;
+    private UUID beerId;
+    private Integer orderQuantity;
+    private Integer quantityAllocated;    // always the whole orderQuantity - an order short of stock is rejected
+}
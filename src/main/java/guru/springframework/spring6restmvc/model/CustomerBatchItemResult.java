@@ -0,0 +1,20 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBatchItemResult {
+    private int index;    // position of the operation in the request
+    private CustomerBatchItemStatus status;
+    private UUID customerId;
+    private Integer version;
+    private String message;
+}
@@ -0,0 +1,5 @@
+package guru.springframework.spring6restmvc.model;
+
+public enum CustomerBatchItemStatus {
+    CREATED, UPDATED, DELETED, NOT_FOUND, INVALID, PRECONDITION_FAILED, CONFLICT
+}
@@ -0,0 +1,19 @@
+package guru.springframework.spring6restmvc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBatchOperation {
+    private CustomerBatchAction action;
+    private UUID customerId;    // required for everything but CREATE
+    private Integer version;    // optional, same as If-Match on the single row endpoints
+    private CustomerDTO customer;
+}
@@ -0,0 +1,7 @@
+package guru.springframework.spring6restmvc.repositories;
+
+/**
+ * Number of beers whose name carries the token.
+ */
+public record BeerNameTokenCount(String token, long beers) {
+}
@@ -1,9 +1,14 @@
 package guru.springframework.spring6restmvc.repositories;
 
 import guru.springframework.spring6restmvc.entities.BeerOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BeerOrderRepository extends JpaRepository<BeerOrder, UUID> {
+
+    @EntityGraph(BeerOrder.WITH_LINES_AND_BEERS)    // the order, its lines and their beers in one joined select
+    Optional<BeerOrder> findWithLinesAndBeersById(UUID id);
 }
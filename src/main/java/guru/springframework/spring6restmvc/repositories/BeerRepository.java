@@ -2,16 +2,232 @@ package guru.springframework.spring6restmvc.repositories;
 
 import guru.springframework.spring6restmvc.entities.Beer;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface BeerRepository extends JpaRepository<Beer, UUID> {
+    // the search pattern and, for word searches, every word of the search are matched on the normalized name. The
+    // escape clause goes last - the lexer would read a quote after its backslash as part of the literal
+    String NAME_MATCH = "(:wordsPattern is null or function('regexp_like', b.searchName, :wordsPattern) = true) " +
+            "and b.searchName like :searchPattern escape '\\'";
+
+    // candidates are the beers carrying the rarest token of the search (index range on token), the name conditions
+    // are confirmed on those candidates only
+    String NAME_TOKEN_JOIN = " join b.nameTokens t";
+    String NAME_TOKEN_MATCH = "t = :token and " + NAME_MATCH;
+
+    String AFTER_CURSOR = "(b.beerName > :lastBeerName or (b.beerName = :lastBeerName and b.id > :lastId)) " +
+            "order by b.beerName, b.id";
+
+    String SUMMARY_SELECT = "select new guru.springframework.spring6restmvc.repositories.BeerSummary(b.id, b.version, " +
+            "b.beerName, b.beerStyle, b.upc, b.price, b.createdDate, b.updateDate) from Beer b";
+
+    @Query("select b.version from Beer b where b.id = :id")
+    Optional<Integer> findVersionById(@Param("id") UUID id);
+
+    @EntityGraph(attributePaths = "categories")
+    Optional<Beer> findWithCategoriesById(UUID id);
+
+    // the row lock is what serializes concurrent stock changes - made on the entity, not by a bulk update that clears the cache region
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id = :id")
+    Optional<Beer> findForUpdateById(@Param("id") UUID id);
+
+    // several beers are locked by one statement in id order, so writers locking overlapping sets of beers can not deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Beer b where b.id in :ids order by b.id")
+    List<Beer> findAllForUpdateByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // export streams the whole catalog - fetched in chunks, never dirty checked and kept out of the second level cache
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select b from Beer b")
+    Stream<Beer> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select b from Beer b where b.beerStyle = :beerStyle")
+    Stream<Beer> streamAllByBeerStyle(@Param("beerStyle") BeerStyle beerStyle);
+
     Page<Beer> findAllByBeerNameIsLikeIgnoreCase(String beerName, Pageable pageable);
 
     Page<Beer> findAllByBeerStyle(BeerStyle beerStyle, Pageable pageable);
 
     Page<Beer> findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle(String beerName, BeerStyle beerStyle, Pageable pageable);
+
+    // slices fetch one extra row to know whether there is a next page instead of running a count query
+    // unfiltered and style-only browsing has a small set of distinct pages, so those results go to the query cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select b from Beer b")
+    Slice<Beer> findAllSlice(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Slice<Beer> findSliceByBeerStyle(BeerStyle beerStyle, Pageable pageable);
+
+    long countByBeerStyle(BeerStyle beerStyle);
+
+    Slice<Beer> findSliceBySearchNameStartingWith(String searchName, Pageable pageable);
+
+    Slice<Beer> findSliceBySearchNameStartingWithAndBeerStyle(String searchName, BeerStyle beerStyle, Pageable pageable);
+
+    long countBySearchNameStartingWith(String searchName);
+
+    long countBySearchNameStartingWithAndBeerStyle(String searchName, BeerStyle beerStyle);
+
+    @Query("select new guru.springframework.spring6restmvc.repositories.BeerNameTokenCount(t, count(b)) " +
+            "from Beer b" + NAME_TOKEN_JOIN + " where t in :tokens group by t")
+    List<BeerNameTokenCount> countBeersByNameTokens(@Param("tokens") Collection<String> tokens);
+
+    // searches without a token - every word shorter than one - scan the names with the same conditions
+    @Query("select b from Beer b where " + NAME_MATCH)
+    Slice<Beer> findSliceByNamePattern(@Param("searchPattern") String searchPattern,
+                                       @Param("wordsPattern") String wordsPattern, Pageable pageable);
+
+    @Query("select b from Beer b where b.beerStyle = :beerStyle and " + NAME_MATCH)
+    Slice<Beer> findSliceByNamePatternAndBeerStyle(@Param("searchPattern") String searchPattern,
+                                                   @Param("wordsPattern") String wordsPattern,
+                                                   @Param("beerStyle") BeerStyle beerStyle, Pageable pageable);
+
+    @Query("select count(b) from Beer b where " + NAME_MATCH)
+    long countByNamePattern(@Param("searchPattern") String searchPattern,
+                            @Param("wordsPattern") String wordsPattern);
+
+    @Query("select count(b) from Beer b where b.beerStyle = :beerStyle and " + NAME_MATCH)
+    long countByNamePatternAndBeerStyle(@Param("searchPattern") String searchPattern,
+                                        @Param("wordsPattern") String wordsPattern,
+                                        @Param("beerStyle") BeerStyle beerStyle);
+
+    @Query("select b from Beer b" + NAME_TOKEN_JOIN + " where " + NAME_TOKEN_MATCH)
+    Slice<Beer> findSliceByNameToken(@Param("token") String token,
+                                     @Param("searchPattern") String searchPattern,
+                                     @Param("wordsPattern") String wordsPattern, Pageable pageable);
+
+    @Query("select b from Beer b" + NAME_TOKEN_JOIN + " where b.beerStyle = :beerStyle and " + NAME_TOKEN_MATCH)
+    Slice<Beer> findSliceByNameTokenAndBeerStyle(@Param("token") String token,
+                                                 @Param("searchPattern") String searchPattern,
+                                                 @Param("wordsPattern") String wordsPattern,
+                                                 @Param("beerStyle") BeerStyle beerStyle, Pageable pageable);
+
+    @Query("select count(b) from Beer b" + NAME_TOKEN_JOIN + " where " + NAME_TOKEN_MATCH)
+    long countByNameToken(@Param("token") String token,
+                          @Param("searchPattern") String searchPattern,
+                          @Param("wordsPattern") String wordsPattern);
+
+    @Query("select count(b) from Beer b" + NAME_TOKEN_JOIN + " where b.beerStyle = :beerStyle and " + NAME_TOKEN_MATCH)
+    long countByNameTokenAndBeerStyle(@Param("token") String token,
+                                      @Param("searchPattern") String searchPattern,
+                                      @Param("wordsPattern") String wordsPattern,
+                                      @Param("beerStyle") BeerStyle beerStyle);
+
+    // keyset (seek) queries - continue after the (beerName, id) of the last row seen, so no rows are skipped and no count is run
+    // every cursor is a key of its own that is rarely asked for again, so these stay out of the query cache
+    // the name filters are the same predicates the offset listings use, so both modes return the same rows for a search
+    @Query("select b from Beer b where " + AFTER_CURSOR)
+    Slice<Beer> findSliceAfter(@Param("lastBeerName") String lastBeerName, @Param("lastId") UUID lastId,
+                               Pageable pageable);
+
+    @Query("select b from Beer b where b.beerStyle = :beerStyle and " + AFTER_CURSOR)
+    Slice<Beer> findSliceByBeerStyleAfter(@Param("beerStyle") BeerStyle beerStyle,
+                                          @Param("lastBeerName") String lastBeerName, @Param("lastId") UUID lastId,
+                                          Pageable pageable);
+
+    @Query("select b from Beer b where " + NAME_MATCH + " and " + AFTER_CURSOR)
+    Slice<Beer> findSliceByNamePatternAfter(@Param("searchPattern") String searchPattern,
+                                            @Param("wordsPattern") String wordsPattern,
+                                            @Param("lastBeerName") String lastBeerName, @Param("lastId") UUID lastId,
+                                            Pageable pageable);
+
+    @Query("select b from Beer b where b.beerStyle = :beerStyle and " + NAME_MATCH + " and " + AFTER_CURSOR)
+    Slice<Beer> findSliceByNamePatternAndBeerStyleAfter(@Param("searchPattern") String searchPattern,
+                                                        @Param("wordsPattern") String wordsPattern,
+                                                        @Param("beerStyle") BeerStyle beerStyle,
+                                                        @Param("lastBeerName") String lastBeerName,
+                                                        @Param("lastId") UUID lastId, Pageable pageable);
+
+    @Query("select b from Beer b where b.searchName like :searchPrefix escape '\\' and " + AFTER_CURSOR)
+    Slice<Beer> findSliceBySearchPrefixAfter(@Param("searchPrefix") String searchPrefix,
+                                             @Param("lastBeerName") String lastBeerName, @Param("lastId") UUID lastId,
+                                             Pageable pageable);
+
+    @Query("select b from Beer b where b.searchName like :searchPrefix escape '\\' and b.beerStyle = :beerStyle and " +
+            AFTER_CURSOR)
+    Slice<Beer> findSliceBySearchPrefixAndBeerStyleAfter(@Param("searchPrefix") String searchPrefix,
+                                                         @Param("beerStyle") BeerStyle beerStyle,
+                                                         @Param("lastBeerName") String lastBeerName,
+                                                         @Param("lastId") UUID lastId, Pageable pageable);
+
+    @Query("select b from Beer b" + NAME_TOKEN_JOIN + " where " + NAME_TOKEN_MATCH + " and " + AFTER_CURSOR)
+    Slice<Beer> findSliceByNameTokenAfter(@Param("token") String token,
+                                          @Param("searchPattern") String searchPattern,
+                                          @Param("wordsPattern") String wordsPattern,
+                                          @Param("lastBeerName") String lastBeerName, @Param("lastId") UUID lastId,
+                                          Pageable pageable);
+
+    @Query("select b from Beer b" + NAME_TOKEN_JOIN + " where b.beerStyle = :beerStyle and " + NAME_TOKEN_MATCH +
+            " and " + AFTER_CURSOR)
+    Slice<Beer> findSliceByNameTokenAndBeerStyleAfter(@Param("token") String token,
+                                                      @Param("searchPattern") String searchPattern,
+                                                      @Param("wordsPattern") String wordsPattern,
+                                                      @Param("beerStyle") BeerStyle beerStyle,
+                                                      @Param("lastBeerName") String lastBeerName,
+                                                      @Param("lastId") UUID lastId, Pageable pageable);
+
+    // summary listings (showInventory=false) - the same filters as the slices above, selecting only the listing columns
+    @Query(SUMMARY_SELECT)
+    Slice<BeerSummary> findSummarySlice(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " where b.beerStyle = :beerStyle")
+    Slice<BeerSummary> findSummarySliceByBeerStyle(@Param("beerStyle") BeerStyle beerStyle, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " where " + NAME_MATCH)
+    Slice<BeerSummary> findSummarySliceByNamePattern(@Param("searchPattern") String searchPattern,
+                                                     @Param("wordsPattern") String wordsPattern, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " where b.beerStyle = :beerStyle and " + NAME_MATCH)
+    Slice<BeerSummary> findSummarySliceByNamePatternAndBeerStyle(@Param("searchPattern") String searchPattern,
+                                                                 @Param("wordsPattern") String wordsPattern,
+                                                                 @Param("beerStyle") BeerStyle beerStyle,
+                                                                 Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " where b.searchName like :searchPrefix escape '\\'")
+    Slice<BeerSummary> findSummarySliceBySearchPrefix(@Param("searchPrefix") String searchPrefix, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " where b.searchName like :searchPrefix escape '\\' and b.beerStyle = :beerStyle")
+    Slice<BeerSummary> findSummarySliceBySearchPrefixAndBeerStyle(@Param("searchPrefix") String searchPrefix,
+                                                                  @Param("beerStyle") BeerStyle beerStyle,
+                                                                  Pageable pageable);
+
+    @Query(SUMMARY_SELECT + NAME_TOKEN_JOIN + " where " + NAME_TOKEN_MATCH)
+    Slice<BeerSummary> findSummarySliceByNameToken(@Param("token") String token,
+                                                   @Param("searchPattern") String searchPattern,
+                                                   @Param("wordsPattern") String wordsPattern, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + NAME_TOKEN_JOIN + " where b.beerStyle = :beerStyle and " + NAME_TOKEN_MATCH)
+    Slice<BeerSummary> findSummarySliceByNameTokenAndBeerStyle(@Param("token") String token,
+                                                               @Param("searchPattern") String searchPattern,
+                                                               @Param("wordsPattern") String wordsPattern,
+                                                               @Param("beerStyle") BeerStyle beerStyle,
+                                                               Pageable pageable);
 }
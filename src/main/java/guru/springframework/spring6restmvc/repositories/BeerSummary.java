@@ -0,0 +1,15 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Listing columns of a beer without quantity on hand, selected straight into this record -
+ * no entity is instantiated, tracked or dirty checked.
+ */
+public record BeerSummary(UUID id, Integer version, String beerName, BeerStyle beerStyle, String upc,
+                          BigDecimal price, LocalDateTime createdDate, LocalDateTime updateDate) {
+}
@@ -0,0 +1,40 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class BeerBatchWriter {
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final BeerCountCache beerCountCache;
+    private final BeerDtoCache beerDtoCache;
+    private final BeerImportMetrics beerImportMetrics;
+
+    @Getter
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    public void persistBatch(List<Beer> beers) {
+        long startTime = System.nanoTime();
+
+        // each chunk is flushed as one JDBC batch and then detached, so the persistence context never grows past batchSize
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            beers.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        beerImportMetrics.batchWritten(beers.size(), System.nanoTime() - startTime);
+        beerCountCache.invalidate();
+        beerDtoCache.invalidatePages();
+    }
+}
@@ -0,0 +1,70 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerBulkJobDTO;
+import guru.springframework.spring6restmvc.model.BeerBulkJobStatus;
+import guru.springframework.spring6restmvc.model.BeerBulkRowError;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+class BeerBulkJob {    // written by the worker thread and read by status requests at the same time
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Getter
+    private final UUID jobId = UUID.randomUUID();
+    private final LocalDateTime createdDate = LocalDateTime.now();
+    private final AtomicLong rowsAccepted = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<BeerBulkRowError> rejectedRows = new ArrayList<>();
+
+    private volatile BeerBulkJobStatus status = BeerBulkJobStatus.PENDING;
+    private volatile String failureMessage;
+    @Getter
+    private volatile LocalDateTime completedDate;
+
+    void start() {
+        status = BeerBulkJobStatus.RUNNING;
+    }
+
+    void accept(int rows) {
+        rowsAccepted.addAndGet(rows);
+    }
+
+    synchronized void reject(long row, List<Map<String, String>> errors) {
+        rowsRejected.incrementAndGet();
+
+        if (rejectedRows.size() < MAX_REPORTED_ERRORS) {    // counts stay exact, but only the first errors are kept for the report
+            rejectedRows.add(new BeerBulkRowError(row, errors));
+        }
+    }
+
+    void complete() {
+        completedDate = LocalDateTime.now();
+        status = BeerBulkJobStatus.COMPLETED;
+    }
+
+    void fail(String message) {
+        failureMessage = message;
+        completedDate = LocalDateTime.now();
+        status = BeerBulkJobStatus.FAILED;
+    }
+
+    synchronized BeerBulkJobDTO toDto() {
+        return BeerBulkJobDTO.builder()
+                .jobId(jobId)
+                .status(status)
+                .rowsProcessed(rowsAccepted.get() + rowsRejected.get())
+                .rowsAccepted(rowsAccepted.get())
+                .rowsRejected(rowsRejected.get())
+                .rejectedRows(List.copyOf(rejectedRows))
+                .failureMessage(failureMessage)
+                .createdDate(createdDate)
+                .completedDate(completedDate)
+                .build();
+    }
+}
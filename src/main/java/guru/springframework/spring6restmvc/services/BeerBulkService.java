@@ -0,0 +1,18 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerBulkJobDTO;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BeerBulkService {
+
+    BeerBulkJobDTO submitBeers(List<BeerDTO> beers);
+
+    BeerBulkJobDTO submitCsv(MultipartFile csvFile);
+
+    Optional<BeerBulkJobDTO> getJobById(UUID jobId);
+}
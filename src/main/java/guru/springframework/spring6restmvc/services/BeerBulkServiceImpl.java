@@ -0,0 +1,229 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.exceptions.ServiceUnavailableException;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerBulkJobDTO;
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerBulkServiceImpl implements BeerBulkService {
+    private static final Duration JOB_RETENTION = Duration.ofHours(24);
+
+    private final BeerCsvService beerCsvService;
+    private final BeerBatchWriter beerBatchWriter;
+    private final BeerMapper beerMapper;
+    private final Validator validator;
+    private final BeerImportMetrics beerImportMetrics;
+
+    private final Map<UUID, BeerBulkJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${beer.bulk.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${beer.bulk.queue-capacity:16}")
+    private int queueCapacity;
+
+    private ExecutorService executorService;
+
+    @PostConstruct
+    void startWorkers() {
+        executorService = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));    // a full queue rejects the job instead of piling up uploads
+    }
+
+    @PreDestroy
+    void stopWorkers() {
+        executorService.shutdown();
+    }
+
+    @Override
+    public BeerBulkJobDTO submitBeers(List<BeerDTO> beers) {
+        return submit(job -> processRows(job, beers.iterator(), this::beerDtoToNewBeer));
+    }
+
+    @Override
+    public BeerBulkJobDTO submitCsv(MultipartFile csvFile) {
+        File tempFile;
+        try {
+            // the upload only lives as long as the request, so the job works on its own copy
+            tempFile = File.createTempFile("beer-bulk-", ".csv");
+            csvFile.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        try {
+            return submit(job -> {
+                try (Reader reader = new BufferedReader(new FileReader(tempFile))) {
+                    Iterator<BeerCSVRecord> records = beerCsvService.iterateCSV(reader);
+
+                    processRows(job, records, BeerCsvImportServiceImpl::csvRecordToBeer);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    deleteTempFile(tempFile);
+                }
+            });
+        } catch (ServiceUnavailableException e) {
+            deleteTempFile(tempFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<BeerBulkJobDTO> getJobById(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(BeerBulkJob::toDto);
+    }
+
+    private BeerBulkJobDTO submit(Consumer<BeerBulkJob> work) {
+        evictExpiredJobs();
+
+        BeerBulkJob job = new BeerBulkJob();
+        jobs.put(job.getJobId(), job);
+
+        try {
+            executorService.execute(() -> run(job, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            throw new ServiceUnavailableException("Bulk job queue is full", e);
+        }
+
+        return job.toDto();
+    }
+
+    private void run(BeerBulkJob job, Consumer<BeerBulkJob> work) {
+        long startTime = System.nanoTime();
+        job.start();
+        beerImportMetrics.importStarted();
+        try {
+            work.accept(job);
+            job.complete();
+        } catch (RuntimeException e) {
+            log.error("Beer bulk job {} failed", job.getJobId(), e);
+            job.fail(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+        } finally {
+            beerImportMetrics.importFinished(job.toDto().getRowsProcessed(), System.nanoTime() - startTime);
+        }
+    }
+
+    private <T> void processRows(BeerBulkJob job, Iterator<T> rows, Function<T, Beer> rowToBeer) {
+        List<Beer> batch = new ArrayList<>(beerBatchWriter.getBatchSize());
+        List<Long> batchRows = new ArrayList<>(beerBatchWriter.getBatchSize());
+        long row = 0;
+
+        while (rows.hasNext()) {
+            row++;
+            Beer beer;
+            try {
+                beer = rowToBeer.apply(rows.next());
+            } catch (RuntimeException e) {
+                // a row that can not even be parsed is reported like an invalid one and the rest of the file goes on
+                String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                job.reject(row, List.of(Map.of("row", String.valueOf(message))));
+                continue;
+            }
+
+            if (beer == null) {    // a null element of a JSON array - nothing to validate or save
+                job.reject(row, List.of(Map.of("row", "Row is empty")));
+                continue;
+            }
+
+            Set<ConstraintViolation<Beer>> violations = validator.validate(beer);
+            if (!violations.isEmpty()) {
+                job.reject(row, violations.stream()
+                        .map(violation -> Map.of(violation.getPropertyPath().toString(), violation.getMessage()))
+                        .collect(Collectors.toList()));
+                continue;
+            }
+
+            batch.add(beer);
+            batchRows.add(row);
+
+            if (batch.size() >= beerBatchWriter.getBatchSize()) {
+                writeBatch(job, batch, batchRows);
+            }
+        }
+        writeBatch(job, batch, batchRows);
+    }
+
+    private void writeBatch(BeerBulkJob job, List<Beer> batch, List<Long> batchRows) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            beerBatchWriter.persistBatch(batch);
+            job.accept(batch.size());
+        } catch (DataAccessException | PersistenceException e) {
+            // the whole chunk was rolled back, so every row in it is reported with the database error
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            batchRows.forEach(batchRow -> job.reject(batchRow, List.of(Map.of("database", message))));
+        }
+
+        batch.clear();
+        batchRows.clear();
+    }
+
+    private Beer beerDtoToNewBeer(BeerDTO beerDTO) {
+        if (beerDTO == null) {
+            return null;
+        }
+
+        Beer beer = beerMapper.beerDtoToBeer(beerDTO);
+        beer.setId(null);
+        beer.setVersion(null);
+        return beer;
+    }
+
+    private void deleteTempFile(File tempFile) {
+        if (!tempFile.delete()) {
+            log.warn("Could not delete bulk CSV file {}", tempFile);
+        }
+    }
+
+    private void evictExpiredJobs() {
+        LocalDateTime expiry = LocalDateTime.now().minus(JOB_RETENTION);
+
+        jobs.values().removeIf(job -> job.getCompletedDate() != null && job.getCompletedDate().isBefore(expiry));
+    }
+}
@@ -0,0 +1,72 @@
+package guru.springframework.spring6restmvc.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Listing totals per filter, bounded by size since the filter holds whatever name a client searched for.
+ */
+@Component
+public class BeerCountCache {
+
+    private record CountKey(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle) {
+    }
+
+    private final Cache<CountKey, Long> counts;
+    private final AtomicLong generation = new AtomicLong();
+
+    public BeerCountCache(@Value("${beer.count-cache.maximum-size:1000}") long maximumSize,
+                          @Value("${beer.count-cache.ttl:30s}") Duration ttl) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public long getCount(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle, LongSupplier countQuery) {
+        CountKey key = new CountKey(beerName, searchMode, beerStyle);
+        Long cached = counts.getIfPresent(key);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        long generationBefore = generation.get();
+        long count = countQuery.getAsLong();
+
+        // a write that happened while the count was running may not be reflected in it, so it is not cached
+        if (generation.get() == generationBefore) {
+            counts.put(key, count);
+        }
+        return count;
+    }
+
+    public void invalidate() {
+        invalidateNow();
+
+        // a count running before the writing transaction commits still sees the old rows, so clear once more after it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidateNow();
+                }
+            });
+        }
+    }
+
+    private void invalidateNow() {
+        generation.incrementAndGet();
+        counts.invalidateAll();
+    }
+}
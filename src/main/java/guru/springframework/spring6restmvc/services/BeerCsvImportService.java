@@ -0,0 +1,13 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerCsvImportResult;
+
+import java.io.File;
+import java.io.Reader;
+
+public interface BeerCsvImportService {
+
+    BeerCsvImportResult importCsv(File csvFile);
+
+    BeerCsvImportResult importCsv(Reader reader);
+}
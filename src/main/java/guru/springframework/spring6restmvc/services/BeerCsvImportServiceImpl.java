@@ -0,0 +1,118 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.model.BeerCSVRecord;
+import guru.springframework.spring6restmvc.model.BeerCsvImportResult;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerCsvImportServiceImpl implements BeerCsvImportService {
+    private final BeerCsvService beerCsvService;
+    private final BeerBatchWriter beerBatchWriter;
+    private final BeerImportMetrics beerImportMetrics;
+
+    @Override
+    public BeerCsvImportResult importCsv(File csvFile) {
+        try (Reader reader = new BufferedReader(new FileReader(csvFile))) {
+            return importCsv(reader);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public BeerCsvImportResult importCsv(Reader reader) {
+        Iterator<BeerCSVRecord> records = beerCsvService.iterateCSV(reader);
+
+        long startTime = System.nanoTime();
+        long rowsImported = 0;
+
+        beerImportMetrics.importStarted();
+        try {
+            while (records.hasNext()) {
+                List<Beer> batch = nextBatch(records);
+
+                beerBatchWriter.persistBatch(batch);
+
+                rowsImported += batch.size();
+            }
+        } finally {
+            beerImportMetrics.importFinished(rowsImported, System.nanoTime() - startTime);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        double rowsPerSecond = elapsedMillis > 0 ? rowsImported * 1000.0 / elapsedMillis : rowsImported;
+
+        log.info("Imported {} beers from CSV in {} ms ({} rows/sec)", rowsImported, elapsedMillis,
+                String.format("%.1f", rowsPerSecond));
+
+        return BeerCsvImportResult.builder()
+                .rowsImported(rowsImported)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(rowsPerSecond)
+                .build();
+    }
+
+    private List<Beer> nextBatch(Iterator<BeerCSVRecord> records) {
+        List<Beer> batch = new ArrayList<>(beerBatchWriter.getBatchSize());
+
+        while (records.hasNext() && batch.size() < beerBatchWriter.getBatchSize()) {
+            batch.add(csvRecordToBeer(records.next()));
+        }
+        return batch;
+    }
+
+    public static Beer csvRecordToBeer(BeerCSVRecord beerCSVRecord) {
+        return Beer.builder()
+                .beerName(StringUtils.abbreviate(beerCSVRecord.getBeer(), 50))
+                .beerStyle(mapBeerStyle(beerCSVRecord.getStyle()))
+                .price(beerCSVRecord.getPrice() != null ? beerCSVRecord.getPrice() : BigDecimal.TEN)
+                .upc(beerCSVRecord.getUpc() != null ? beerCSVRecord.getUpc()    // the original data set only numbers its rows
+                        : beerCSVRecord.getRow() != null ? beerCSVRecord.getRow().toString() : null)
+                .quantityOnHand(beerCSVRecord.getCount())
+                .build();
+    }
+
+    public static BeerStyle mapBeerStyle(String style) {
+        if (style == null) {
+            return BeerStyle.PILSNER;
+        }
+
+        // exported files carry the style name itself
+        for (BeerStyle beerStyle : BeerStyle.values()) {
+            if (beerStyle.name().equals(style)) {
+                return beerStyle;
+            }
+        }
+
+        return switch (style) {
+            case "American Pale Lager" -> BeerStyle.LAGER;
+            case "American Pale Ale (APA)", "American Black Ale", "Belgian Dark Ale", "American Blonde Ale" ->
+                    BeerStyle.ALE;
+            case "American IPA", "American Double / Imperial IPA", "Belgian IPA" -> BeerStyle.IPA;
+            case "American Porter" -> BeerStyle.PORTER;
+            case "Oatmeal Stout", "American Stout" -> BeerStyle.STOUT;
+            case "Saison / Farmhouse Ale" -> BeerStyle.SAISON;
+            case "Fruit / Vegetable Beer", "Winter Warmer", "Berliner Weissbier" -> BeerStyle.WHEAT;
+            case "English Pale Ale" -> BeerStyle.PALE_ALE;
+            default -> BeerStyle.PILSNER;
+        };
+    }
+}
@@ -3,8 +3,14 @@ package guru.springframework.spring6restmvc.services;
 import guru.springframework.spring6restmvc.model.BeerCSVRecord;
 
 import java.io.File;
+import java.io.Reader;
+import java.util.Iterator;
 import java.util.List;
 
 public interface BeerCsvService {
     List<BeerCSVRecord> convertCSV(File csvFile);
+
+    // records are parsed lazily, one row at a time, so large files never have to fit in memory; next() throws
+    // IllegalArgumentException for a malformed row and iteration can go on past it
+    Iterator<BeerCSVRecord> iterateCSV(Reader reader);
 }
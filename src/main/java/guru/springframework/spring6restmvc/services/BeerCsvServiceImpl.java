@@ -1,13 +1,21 @@
 package guru.springframework.spring6restmvc.services;
 
+import com.opencsv.CSVReader;
 import com.opencsv.bean.CsvToBeanBuilder;
+import com.opencsv.bean.HeaderColumnNameMappingStrategy;
+import com.opencsv.exceptions.CsvException;
 import guru.springframework.spring6restmvc.model.BeerCSVRecord;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @Service
 public class BeerCsvServiceImpl implements BeerCsvService {
@@ -22,4 +30,57 @@ public class BeerCsvServiceImpl implements BeerCsvService {
             throw new RuntimeException(e);
         }
     }
+
+    @Override
+    public Iterator<BeerCSVRecord> iterateCSV(Reader reader) {
+        CSVReader csvReader = new CSVReader(reader);
+        HeaderColumnNameMappingStrategy<BeerCSVRecord> mappingStrategy = new HeaderColumnNameMappingStrategy<>();
+        mappingStrategy.setType(BeerCSVRecord.class);
+        try {
+            mappingStrategy.captureHeader(csvReader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CsvException e) {
+            throw new IllegalArgumentException("Invalid CSV header: " + e.getMessage(), e);
+        }
+
+        // unlike the CsvToBean iterator, a malformed row only fails its own next() and the rows after it still come
+        return new Iterator<>() {
+            private String[] line;
+            private boolean lineRead;
+
+            @Override
+            public boolean hasNext() {
+                if (!lineRead) {
+                    line = readLine(csvReader);
+                    lineRead = true;
+                }
+                return line != null;
+            }
+
+            @Override
+            public BeerCSVRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                lineRead = false;
+
+                try {
+                    return mappingStrategy.populateNewBean(line);
+                } catch (CsvException e) {
+                    throw new IllegalArgumentException(e.getMessage(), e);
+                }
+            }
+        };
+    }
+
+    private String[] readLine(CSVReader csvReader) {
+        try {
+            return csvReader.readNext();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CsvException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.exceptions.BadRequestException;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+// opaque continuation token: the sort key (beerName, id) of the last row of the previous slice
+public record BeerCursor(String beerName, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static final BeerCursor FIRST = new BeerCursor("", new UUID(0L, 0L));    // beer names are never blank, so every row sorts after it
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((beerName + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BeerCursor decode(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return FIRST;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.lastIndexOf(SEPARATOR);    // the id never contains the separator, the name might
+
+            return new BeerCursor(decoded.substring(0, separatorIndex),
+                    UUID.fromString(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package guru.springframework.spring6restmvc.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Mapped {@link BeerDTO}s by id and listing pages, bounded by size with Caffeine's W-TinyLFU eviction.
+ * Concurrent misses on the same key wait for a single load instead of each querying the database.
+ */
+@Component
+public class BeerDtoCache implements MeterBinder {
+
+    public record PageKey(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle, Boolean showInventory,
+                          Integer pageNumber, Integer pageSize) {
+
+        boolean showsInventory() {    // only showInventory=false leaves quantityOnHand out
+            return !Boolean.FALSE.equals(showInventory);
+        }
+    }
+
+    private final Cache<UUID, BeerDTO> beers;
+    private final Cache<PageKey, Page<BeerDTO>> pages;
+    private final AtomicLong beerGeneration = new AtomicLong();
+    private final AtomicLong pageGeneration = new AtomicLong();
+
+    public BeerDtoCache(@Value("${beer.dto-cache.maximum-size:10000}") long maximumSize,
+                        @Value("${beer.dto-cache.page-maximum-size:500}") long pageMaximumSize,
+                        @Value("${beer.dto-cache.ttl:10m}") Duration ttl) {
+        this.beers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(pageMaximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, beers, "beerDto");
+        bindCache(registry, pages, "beerDtoPage");
+    }
+
+    private static void bindCache(MeterRegistry registry, Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .description("Share of lookups answered from the cache since startup")
+                .register(registry);
+    }
+
+    public Optional<BeerDTO> getBeer(UUID beerId, Supplier<Optional<BeerDTO>> loader) {
+        // a missing beer is not cached, the loader returning null leaves no entry behind
+        return Optional.ofNullable(beers.get(beerId, id -> loader.get().orElse(null)));
+    }
+
+    public Map<UUID, BeerDTO> getBeers(Collection<UUID> beerIds,
+                                       Function<Set<? extends UUID>, Map<UUID, BeerDTO>> loader) {
+        long generationBefore = beerGeneration.get();
+        Map<UUID, BeerDTO> found = beers.getAll(beerIds, loader);    // the loader only sees the ids that are not cached
+
+        // a bulk load is not atomic with eviction, so beers read while one was evicted are not kept
+        if (beerGeneration.get() != generationBefore) {
+            beers.invalidateAll(found.keySet());
+        }
+        return found;
+    }
+
+    public Page<BeerDTO> getPage(PageKey key, Supplier<Page<BeerDTO>> loader) {
+        long generationBefore = pageGeneration.get();
+        Page<BeerDTO> page = pages.get(key, k -> loader.get());
+
+        // invalidateAll does not wait for in-flight loads, so a page read before a write must not stay behind
+        if (pageGeneration.get() != generationBefore) {
+            pages.invalidate(key);
+        }
+        return page;
+    }
+
+    public void evict(UUID beerId) {
+        afterCompletion(() -> {
+            invalidateBeerNow(beerId);
+            invalidatePagesNow();
+        });
+    }
+
+    // stock moves with every order, so those writes clear only the listing pages that show it
+    public void evictStock(UUID beerId) {
+        afterCompletion(() -> {
+            invalidateBeerNow(beerId);
+            invalidateInventoryPagesNow();
+        });
+    }
+
+    public void invalidatePages() {
+        afterCompletion(this::invalidatePagesNow);
+    }
+
+    private void invalidateBeerNow(UUID beerId) {
+        beerGeneration.incrementAndGet();
+        beers.invalidate(beerId);
+    }
+
+    private void invalidatePagesNow() {
+        pageGeneration.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private void invalidateInventoryPagesNow() {
+        pageGeneration.incrementAndGet();
+        pages.asMap().keySet().removeIf(PageKey::showsInventory);
+    }
+
+    private void afterCompletion(Runnable eviction) {
+        eviction.run();
+
+        // readers can still load the old row until the writing transaction commits, so evict once more after it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
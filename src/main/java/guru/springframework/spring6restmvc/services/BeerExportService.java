@@ -0,0 +1,13 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BeerExportService {
+
+    void exportNdjson(BeerStyle beerStyle, OutputStream outputStream) throws IOException;    // one BeerDTO per line
+
+    void exportCsv(BeerStyle beerStyle, OutputStream outputStream) throws IOException;    // BeerCSVRecord columns, as read by the CSV import
+}
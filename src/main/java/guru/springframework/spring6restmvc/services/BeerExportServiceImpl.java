@@ -0,0 +1,84 @@
+package guru.springframework.spring6restmvc.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.opencsv.CSVWriter;
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class BeerExportServiceImpl implements BeerExportService {
+
+    private static final String[] CSV_HEADER = {"row", "count.x", "abv", "ibu", "id", "beer", "style", "brewery_id",
+            "ounces", "style2", "count.y", "brewery", "city", "state", "label", "upc", "price"};
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportNdjson(BeerStyle beerStyle, OutputStream outputStream) throws IOException {
+        try (SequenceWriter writer = objectMapper.writerFor(BeerDTO.class)
+                .withRootValueSeparator("\n")
+                .writeValues(outputStream)) {
+            forEachBeer(beerStyle, beer -> {
+                try {
+                    writer.write(beerMapper.beerToBeerDto(beer));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportCsv(BeerStyle beerStyle, OutputStream outputStream) throws IOException {
+        AtomicInteger row = new AtomicInteger();
+
+        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+            writer.writeNext(CSV_HEADER);
+            forEachBeer(beerStyle, beer -> writer.writeNext(csvRow(beer, row.incrementAndGet())));
+        }
+    }
+
+    private void forEachBeer(BeerStyle beerStyle, Consumer<Beer> consumer) {
+        try (Stream<Beer> beers = beerStyle == null ? beerRepository.streamAll() : beerRepository.streamAllByBeerStyle(beerStyle)) {
+            beers.forEach(beer -> {
+                consumer.accept(beer);
+                entityManager.detach(beer);    // keeps the persistence context empty however many rows are exported
+            });
+        }
+    }
+
+    // only the columns the import maps to a Beer are filled in, the brewery and label columns have no counterpart;
+    // the import takes the style name as it is and prefers upc and price over the row number and its default price
+    private String[] csvRow(Beer beer, int row) {
+        return new String[]{String.valueOf(row), toString(beer.getQuantityOnHand()), null, null, null,
+                beer.getBeerName(), beer.getBeerStyle().name(), null, null, null, null, null, null, null,
+                null, beer.getUpc(), beer.getPrice().toPlainString()};
+    }
+
+    private String toString(Integer value) {
+        return value != null ? value.toString() : null;
+    }
+}
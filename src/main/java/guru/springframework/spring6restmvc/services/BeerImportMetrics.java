@@ -0,0 +1,59 @@
+package guru.springframework.spring6restmvc.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Throughput of the CSV import and bulk upload paths, published as {@code beer.import.*} meters.
+ */
+@Component
+public class BeerImportMetrics implements MeterBinder {
+    private final LongAdder rowsWritten = new LongAdder();
+    private final LongAdder batchesWritten = new LongAdder();
+    private final LongAdder batchWriteNanos = new LongAdder();
+    private final AtomicInteger activeImports = new AtomicInteger();
+    private volatile double lastImportRowsPerSecond;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("beer.import.rows", rowsWritten, LongAdder::sum)
+                .description("Beers written by imports and bulk uploads")
+                .register(registry);
+        FunctionTimer.builder("beer.import.batch.writes", this,
+                        metrics -> metrics.batchesWritten.sum(),
+                        metrics -> metrics.batchWriteNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("JDBC batch writes of imported beers")
+                .register(registry);
+        Gauge.builder("beer.import.active", activeImports, AtomicInteger::get)
+                .description("Imports and bulk upload jobs currently running")
+                .register(registry);
+        Gauge.builder("beer.import.last.rows.per.second", this, metrics -> metrics.lastImportRowsPerSecond)
+                .description("Rows per second of the most recently finished import")
+                .register(registry);
+    }
+
+    void batchWritten(int rows, long nanos) {
+        rowsWritten.add(rows);
+        batchesWritten.increment();
+        batchWriteNanos.add(nanos);
+    }
+
+    void importStarted() {
+        activeImports.incrementAndGet();
+    }
+
+    void importFinished(long rows, long nanos) {
+        activeImports.decrementAndGet();
+        if (nanos > 0) {
+            lastImportRowsPerSecond = rows * 1_000_000_000.0 / nanos;
+        }
+    }
+}
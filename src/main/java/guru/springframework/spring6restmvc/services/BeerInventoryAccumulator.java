@@ -0,0 +1,179 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.exceptions.ConflictException;
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Collects inventory deltas in stripes by beer id and writes each stripe out on a fixed interval, one stock change per
+ * beer on its locked entity, so a burst of adjustments of a hot beer costs one row update per flush instead of one per
+ * request. Stripes are flushed by threads of their own, so hot beers of different stripes never wait for each other.
+ * <p>
+ * Callers wait for the flush that applies their delta - a delta the stock can not take is rejected to its own caller,
+ * nothing is acknowledged before it is committed.
+ */
+@Slf4j
+@Component
+public class BeerInventoryAccumulator {
+    private final BeerRepository beerRepository;
+    private final BeerDtoCache beerDtoCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration flushInterval;
+    private final Stripe[] stripes;
+
+    private ScheduledExecutorService flusher;
+
+    public BeerInventoryAccumulator(BeerRepository beerRepository,
+                                    BeerDtoCache beerDtoCache,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${beer.inventory.flush-interval:5ms}") Duration flushInterval,
+                                    @Value("${beer.inventory.stripes:8}") int stripeCount) {
+        this.beerRepository = beerRepository;
+        this.beerDtoCache = beerDtoCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushInterval = flushInterval;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private record PendingAdjustment(UUID beerId, int delta, CompletableFuture<Void> applied) {
+    }
+
+    // a beer always lands in the same stripe, so its deltas keep their arrival order and one flush at a time writes them
+    private final class Stripe {
+        private final Queue<PendingAdjustment> pendingAdjustments = new ConcurrentLinkedQueue<>();
+
+        synchronized void flush() {
+            Map<UUID, List<PendingAdjustment>> batch = new HashMap<>();
+            PendingAdjustment adjustment;
+            while ((adjustment = pendingAdjustments.poll()) != null) {
+                batch.computeIfAbsent(adjustment.beerId(), beerId -> new ArrayList<>()).add(adjustment);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            Map<PendingAdjustment, RuntimeException> rejections = new IdentityHashMap<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> applyAdjustments(batch, rejections));
+            } catch (RuntimeException e) {
+                // nothing of the batch was written
+                batch.values().forEach(failed -> failed.forEach(pending -> pending.applied().completeExceptionally(e)));
+                throw e;
+            }
+
+            // callers only hear back once the stripe's transaction is committed
+            batch.values().forEach(applied -> applied.forEach(pending -> {
+                RuntimeException rejection = rejections.get(pending);
+                if (rejection == null) {
+                    pending.applied().complete(null);
+                } else {
+                    pending.applied().completeExceptionally(rejection);
+                }
+            }));
+        }
+    }
+
+    @PostConstruct
+    void startFlusher() {
+        flusher = Executors.newScheduledThreadPool(stripes.length);
+        for (Stripe stripe : stripes) {
+            flusher.scheduleWithFixedDelay(() -> flushQuietly(stripe), flushInterval.toNanos(), flushInterval.toNanos(),
+                    TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stopFlusher() throws InterruptedException {
+        flusher.shutdown();
+        if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Inventory flusher did not stop in time");
+        }
+        flush();    // callers are still waiting for what was queued before the shutdown
+    }
+
+    /**
+     * Queues the delta for the next flush of the beer's stripe.
+     *
+     * @return completed once the delta is written, or exceptionally with {@link NotFoundException} for an unknown beer
+     * and {@link ConflictException} when the stock can not take it
+     */
+    public CompletableFuture<Void> add(UUID beerId, int delta) {
+        Stripe stripe = stripes[Math.floorMod(beerId.hashCode(), stripes.length)];
+        PendingAdjustment adjustment = new PendingAdjustment(beerId, delta, new CompletableFuture<>());
+        stripe.pendingAdjustments.add(adjustment);
+        if (flusher.isShutdown()) {    // the final flush may already be done, nothing else would pick this one up
+            flushQuietly(stripe);
+        }
+        return adjustment.applied();
+    }
+
+    public void flush() {
+        for (Stripe stripe : stripes) {
+            flushQuietly(stripe);
+        }
+    }
+
+    private void applyAdjustments(Map<UUID, List<PendingAdjustment>> batch,
+                                  Map<PendingAdjustment, RuntimeException> rejections) {
+        // the stripe's beers are locked by one statement, in the id order order placement uses as well
+        Map<UUID, Beer> beers = beerRepository.findAllForUpdateByIdIn(batch.keySet()).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+
+        batch.forEach((beerId, adjustments) -> {
+            Beer beer = beers.get(beerId);
+            if (beer == null) {
+                adjustments.forEach(unknown -> rejections.put(unknown, new NotFoundException()));
+                return;
+            }
+
+            // all deltas of a flush were in flight together, so applying their sum is as good as any order of them
+            long sum = adjustments.stream().mapToLong(PendingAdjustment::delta).sum();
+            if (!beer.adjustQuantityOnHand(sum)) {
+                // the stock can not take the sum, so the deltas go in one by one in arrival order and only those the
+                // stock can not take are rejected
+                for (PendingAdjustment pending : adjustments) {
+                    if (!beer.adjustQuantityOnHand(pending.delta())) {
+                        rejections.put(pending, new ConflictException("Stock can not take a delta of " + pending.delta()));
+                    }
+                }
+            }
+            // changed on the locked entity, so the flush replaces only this beer's second level cache entry
+            beerDtoCache.evictStock(beerId);
+        });
+    }
+
+    private void flushQuietly(Stripe stripe) {
+        try {
+            stripe.flush();
+        } catch (RuntimeException e) {
+            log.error("Inventory flush failed", e);
+        }
+    }
+}
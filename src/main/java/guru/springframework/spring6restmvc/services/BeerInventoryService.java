@@ -0,0 +1,10 @@
+package guru.springframework.spring6restmvc.services;
+
+import java.util.UUID;
+
+public interface BeerInventoryService {
+
+    void adjustInventory(UUID beerId, int delta);    // rejected if it would take stock below zero or past Integer.MAX_VALUE
+
+    void adjustInventoryCoalesced(UUID beerId, int delta);    // the same, but waits for the next flush of BeerInventoryAccumulator
+}
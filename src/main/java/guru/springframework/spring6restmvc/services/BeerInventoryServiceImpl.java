@@ -0,0 +1,43 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.exceptions.ConflictException;
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+
+@Service
+@RequiredArgsConstructor
+public class BeerInventoryServiceImpl implements BeerInventoryService {
+    private final BeerRepository beerRepository;
+    private final BeerInventoryAccumulator beerInventoryAccumulator;
+    private final BeerDtoCache beerDtoCache;
+
+    @Transactional
+    @Override
+    public void adjustInventory(UUID beerId, int delta) {
+        // locked instead of findById + save - concurrent adjustments queue on the row lock and none is lost
+        Beer beer = beerRepository.findForUpdateById(beerId).orElseThrow(NotFoundException::new);
+        if (!beer.adjustQuantityOnHand(delta)) {
+            throw new ConflictException("Stock can not take a delta of " + delta);
+        }
+        beerDtoCache.evictStock(beerId);
+    }
+
+    @Override
+    public void adjustInventoryCoalesced(UUID beerId, int delta) {
+        try {
+            beerInventoryAccumulator.add(beerId, delta).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
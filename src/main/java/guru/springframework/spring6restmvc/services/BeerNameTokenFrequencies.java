@@ -0,0 +1,43 @@
+package guru.springframework.spring6restmvc.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Number of beers carrying each name token, so a name search can start from its rarest token.
+ * Counts are never invalidated on writes - a stale count only picks a less selective token, the results stay the same.
+ */
+@Component
+public class BeerNameTokenFrequencies {
+
+    private final Cache<String, Long> frequencies;
+
+    public BeerNameTokenFrequencies(@Value("${beer.token-frequencies.maximum-size:20000}") long maximumSize,
+                                    @Value("${beer.token-frequencies.ttl:10m}") Duration ttl) {
+        this.frequencies = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public String rarest(Set<String> tokens, Function<Set<String>, Map<String, Long>> countQuery) {
+        Map<String, Long> counts = frequencies.getAll(tokens, missingTokens -> {
+            Map<String, Long> loaded = new HashMap<>(countQuery.apply(Set.copyOf(missingTokens)));
+            missingTokens.forEach(token -> loaded.putIfAbsent(token, 0L));    // no beer has it - the search is empty
+            return loaded;
+        });
+
+        return counts.entrySet().stream()
+                .min(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .orElseThrow();
+    }
+}
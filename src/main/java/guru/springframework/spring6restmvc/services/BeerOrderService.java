@@ -0,0 +1,14 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BeerOrderService {
+
+    BeerOrderDTO placeOrder(BeerOrderCreateDTO beerOrder);
+
+    Optional<BeerOrderDTO> getBeerOrderById(UUID beerOrderId);
+}
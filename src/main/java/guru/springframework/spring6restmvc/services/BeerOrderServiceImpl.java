@@ -0,0 +1,97 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.entities.BeerOrder;
+import guru.springframework.spring6restmvc.entities.BeerOrderLine;
+import guru.springframework.spring6restmvc.entities.BeerOrderShipment;
+import guru.springframework.spring6restmvc.entities.Customer;
+import guru.springframework.spring6restmvc.exceptions.BadRequestException;
+import guru.springframework.spring6restmvc.exceptions.ConflictException;
+import guru.springframework.spring6restmvc.mappers.BeerOrderMapper;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineCreateDTO;
+import guru.springframework.spring6restmvc.repositories.BeerOrderRepository;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerOrderServiceImpl implements BeerOrderService {
+    private final BeerOrderRepository beerOrderRepository;
+    private final BeerRepository beerRepository;
+    private final CustomerRepository customerRepository;
+    private final BeerOrderMapper beerOrderMapper;
+    private final BeerDtoCache beerDtoCache;
+    private final EntityManager entityManager;
+
+    @Transactional
+    @Override
+    public BeerOrderDTO placeOrder(BeerOrderCreateDTO beerOrderCreate) {
+        Customer customer = customerRepository.findById(beerOrderCreate.getCustomerId())
+                .orElseThrow(() -> new BadRequestException("Unknown customer " + beerOrderCreate.getCustomerId()));
+
+        List<BeerOrderLineCreateDTO> lines = beerOrderCreate.getBeerOrderLines();
+        Set<UUID> beerIds = lines.stream().map(BeerOrderLineCreateDTO::getBeerId).collect(Collectors.toSet());
+
+        // every line's beer is locked by one statement in id order, so two orders for the same beers can not deadlock
+        Map<UUID, Beer> beers = beerRepository.findAllForUpdateByIdIn(beerIds).stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+        Set<UUID> missingBeerIds = new HashSet<>(beerIds);
+        missingBeerIds.removeAll(beers.keySet());
+        if (!missingBeerIds.isEmpty()) {
+            throw new BadRequestException("Unknown beers " + missingBeerIds);
+        }
+
+        lines.forEach(line -> {
+            Beer beer = beers.get(line.getBeerId());
+            // taken on the locked entity, so the flush replaces only this beer's second level cache entry
+            if (!beer.adjustQuantityOnHand(-(long) line.getOrderQuantity())) {
+                // the transaction rolls back, so the stock already taken for the other lines goes back too
+                throw new ConflictException("Not enough stock for beer " + beer.getId());
+            }
+        });
+        beerIds.forEach(beerDtoCache::evictStock);
+
+        BeerOrder beerOrder = BeerOrder.builder()
+                .customerRef(beerOrderCreate.getCustomerRef())
+                .customer(customer)
+                .beerOrderLines(new LinkedHashSet<>())
+                .beerOrderShipment(new BeerOrderShipment())
+                .build();
+        lines.forEach(line -> beerOrder.getBeerOrderLines().add(BeerOrderLine.builder()
+                .beer(beers.get(line.getBeerId()))
+                .beerOrder(beerOrder)
+                .orderQuantity(line.getOrderQuantity())
+                .quantityAllocated(line.getOrderQuantity())
+                .build()));
+
+        // order, lines and shipment are inserted together as JDBC batches when the transaction commits
+        entityManager.persist(beerOrder);
+        beerOrder.getBeerOrderLines().forEach(entityManager::persist);
+
+        return beerOrderMapper.beerOrderToBeerOrderDto(beerOrder);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<BeerOrderDTO> getBeerOrderById(UUID beerOrderId) {
+        return beerOrderRepository.findWithLinesAndBeersById(beerOrderId).map(beerOrderMapper::beerOrderToBeerOrderDto);
+    }
+}
@@ -1,24 +1,38 @@
 
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.model.BeerBatchResultDTO;
+import guru.springframework.spring6restmvc.model.BeerCursorPageDTO;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
 import guru.springframework.spring6restmvc.model.BeerStyle;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface BeerService {
 
-    Page<BeerDTO> getAllBeers(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize);
+    Page<BeerDTO> getAllBeers(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize);
+
+    Slice<BeerDTO> getBeerSlice(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize);    // same as getAllBeers without the total count
+
+    BeerCursorPageDTO getBeersAfter(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle, Boolean showInventory, String cursor, Integer pageSize);    // keyset pagination - continues after the cursor returned with the previous slice, without a count query
 
     Optional<BeerDTO> getBeerById(UUID beerId);
 
+    BeerBatchResultDTO getBeersByIds(List<UUID> beerIds);
+
+    Optional<Integer> getBeerVersion(UUID beerId);    // version only lookup for conditional requests, empty if the beer does not exist
+
     BeerDTO saveNewBeer(BeerDTO beer);
 
-    Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer);    // change signatures to return Optional<BeerDTO> for check in the Controller whether come element or Optional.empty() (and throw 404 if empty)
+    // ifMatchVersion is the version the client last saw (If-Match), null for an unconditional write
+    Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer, Integer ifMatchVersion);    // change signatures to return Optional<BeerDTO> for check in the Controller whether come element or Optional.empty() (and throw 404 if empty)
 
     Boolean deleteById(UUID beerId);    // change signatures to return Boolean for check in the Controller whether element was found in DB and deleted (and throw 404 if was not found & deleted)
 
-    Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beer);    // change signatures to return Optional<BeerDTO> for check in the Controller whether come element or Optional.empty() (and throw 404 if empty)
+    Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beer, Integer ifMatchVersion);    // change signatures to return Optional<BeerDTO> for check in the Controller whether come element or Optional.empty() (and throw 404 if empty)
 }
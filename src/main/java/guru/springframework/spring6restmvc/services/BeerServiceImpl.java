@@ -1,20 +1,28 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.model.BeerBatchResultDTO;
+import guru.springframework.spring6restmvc.model.BeerCursorPageDTO;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
 import guru.springframework.spring6restmvc.model.BeerStyle;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -66,8 +74,9 @@ public class BeerServiceImpl implements BeerService {
     }
 
     @Override
-    public Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beer) {
+    public Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beer, Integer ifMatchVersion) {
         BeerDTO existing = beerMap.get(beerId);
+        EntityVersions.check(ifMatchVersion, existing.getVersion());
 
         if (StringUtils.hasText(beer.getBeerName())) {
             existing.setBeerName(beer.getBeerName());
@@ -100,8 +109,9 @@ public class BeerServiceImpl implements BeerService {
     }
 
     @Override
-    public Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer) {
+    public Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer, Integer ifMatchVersion) {
         BeerDTO existing = beerMap.get(beerId);
+        EntityVersions.check(ifMatchVersion, existing.getVersion());
         existing.setBeerName(beer.getBeerName());
         existing.setPrice(beer.getPrice());
         existing.setUpc(beer.getUpc());
@@ -110,10 +120,28 @@ public class BeerServiceImpl implements BeerService {
     }
 
     @Override
-    public Page<BeerDTO> getAllBeers(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize){
+    public Page<BeerDTO> getAllBeers(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize){
         return new PageImpl<>(new ArrayList<>(beerMap.values()));
     }
 
+    @Override
+    public Slice<BeerDTO> getBeerSlice(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle, Boolean showInventory, Integer pageNumber, Integer pageSize) {
+        return new SliceImpl<>(new ArrayList<>(beerMap.values()));
+    }
+
+    @Override
+    public BeerCursorPageDTO getBeersAfter(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle, Boolean showInventory, String cursor, Integer pageSize) {
+        List<BeerDTO> beers = beerMap.values().stream()
+                .sorted(Comparator.comparing(BeerDTO::getBeerName).thenComparing(BeerDTO::getId))
+                .collect(Collectors.toList());
+
+        return BeerCursorPageDTO.builder()
+                .content(beers)
+                .size(beers.size())
+                .hasNext(false)
+                .build();
+    }
+
     @Override
     public Optional<BeerDTO> getBeerById(UUID beerId) {
 
@@ -122,6 +150,21 @@ public class BeerServiceImpl implements BeerService {
         return Optional.of(beerMap.get(beerId));
     }
 
+    @Override
+    public BeerBatchResultDTO getBeersByIds(List<UUID> beerIds) {
+        List<UUID> distinctIds = beerIds.stream().distinct().toList();
+
+        return BeerBatchResultDTO.builder()
+                .beers(distinctIds.stream().filter(beerMap::containsKey).map(beerMap::get).toList())
+                .missingIds(distinctIds.stream().filter(beerId -> !beerMap.containsKey(beerId)).toList())
+                .build();
+    }
+
+    @Override
+    public Optional<Integer> getBeerVersion(UUID beerId) {
+        return Optional.ofNullable(beerMap.get(beerId)).map(BeerDTO::getVersion);
+    }
+
     @Override
     public BeerDTO saveNewBeer(BeerDTO beer) {
 
@@ -1,22 +1,43 @@
 package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.entities.BeerNameTokens;
+import guru.springframework.spring6restmvc.exceptions.ConflictException;
+import guru.springframework.spring6restmvc.exceptions.PreconditionFailedException;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerBatchResultDTO;
+import guru.springframework.spring6restmvc.model.BeerCursorPageDTO;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerNameTokenCount;
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.BeerSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @Primary
@@ -24,32 +45,76 @@ import java.util.concurrent.atomic.AtomicReference;
 public class BeerServiceJPA implements BeerService {
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
+    private final BeerCountCache beerCountCache;
+    private final BeerDtoCache beerDtoCache;
+    private final BeerNameTokenFrequencies beerNameTokenFrequencies;
 
     private static final int DEFAULT_PAGE = 0;
     private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int ID_CHUNK_SIZE = 500;
+    private static final EscapeCharacter LIKE_ESCAPE = EscapeCharacter.DEFAULT;    // the escape clause of the name queries
 
+    @Transactional(readOnly = true)
     @Override
-    public Page<BeerDTO> getAllBeers(String beerName, BeerStyle beerStyle,
+    public Page<BeerDTO> getAllBeers(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle,
                                      Boolean showInventory, Integer pageNumber,
                                      Integer pageSize) {
+        return beerDtoCache.getPage(
+                new BeerDtoCache.PageKey(beerName, searchMode, beerStyle, showInventory, pageNumber, pageSize),
+                () -> loadBeerPage(beerName, searchMode, beerStyle, showInventory, pageNumber, pageSize));
+    }
+
+    private Page<BeerDTO> loadBeerPage(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle,
+                                       Boolean showInventory, Integer pageNumber, Integer pageSize) {
         PageRequest pageRequest = buildPageRequest(pageNumber, pageSize);
 
-        Page<Beer> beerPage;
+        Slice<BeerDTO> beerSlice = listBeerDtos(beerName, searchMode, beerStyle, showInventory, pageRequest);
 
-        if (StringUtils.hasText(beerName) && beerStyle == null) {
-            beerPage = listBeersByName(beerName, pageRequest);
-        } else if (!StringUtils.hasText(beerName) && beerStyle != null) {
-            beerPage = listBeersByStyle(beerStyle, pageRequest);
-        } else if (StringUtils.hasText(beerName) && beerStyle != null) {
-            beerPage = listBeersByNameAndStyle(beerName, beerStyle, pageRequest);
-        } else {
-            beerPage = beerRepository.findAll(pageRequest);
+        long total;
+        if (!beerSlice.hasNext() && (beerSlice.hasContent() || pageRequest.getOffset() == 0)) {
+            total = pageRequest.getOffset() + beerSlice.getNumberOfElements();    // last page - the total is already known
+        } else {    // an empty page past the end says nothing about how many rows come before it
+            total = beerCountCache.getCount(beerName, searchMode, beerStyle,
+                    () -> countBeers(beerName, searchMode, beerStyle));
         }
 
+        return new PageImpl<>(beerSlice.getContent(), pageRequest, total);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<BeerDTO> getBeerSlice(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle,
+                                       Boolean showInventory, Integer pageNumber, Integer pageSize) {
+        return listBeerDtos(beerName, searchMode, beerStyle, showInventory, buildPageRequest(pageNumber, pageSize));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BeerCursorPageDTO getBeersAfter(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle,
+                                           Boolean showInventory, String cursor, Integer pageSize) {
+        BeerCursor after = BeerCursor.decode(cursor);
+        Pageable pageable = PageRequest.ofSize(buildPageRequest(null, pageSize).getPageSize());    // ordering is part of the seek queries
+
+        Slice<Beer> beerSlice = seekBeers(beerName, searchMode, beerStyle, after, pageable);
+
+        List<BeerDTO> content = beerSlice.map(beerMapper::beerToBeerDto).getContent();
+
         if (showInventory != null && !showInventory) {
-            beerPage.forEach(beer -> beer.setQuantityOnHand(null));
+            content.forEach(beerDTO -> beerDTO.setQuantityOnHand(null));
         }
-        return beerPage.map(beerMapper::beerToBeerDto);
+
+        String nextCursor = null;
+        if (beerSlice.hasNext()) {
+            BeerDTO last = content.get(content.size() - 1);
+            nextCursor = new BeerCursor(last.getBeerName(), last.getId()).encode();
+        }
+
+        return BeerCursorPageDTO.builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(beerSlice.hasNext())
+                .nextCursor(nextCursor)
+                .build();
     }
 
     public PageRequest buildPageRequest(Integer pageNumber, Integer pageSize) {
@@ -78,43 +143,235 @@ public class BeerServiceJPA implements BeerService {
         return PageRequest.of(queryPageNumber, queryPageSize, sort);
     }
 
-    private Page<Beer> listBeersByNameAndStyle(String beerName, BeerStyle beerStyle, Pageable pageable) {  // refactor methods to pass required 'Pageable' to Repositories method and return 'Page'
-        return beerRepository.findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle("%" + beerName + "%", beerStyle, pageable);
+    private Slice<BeerDTO> listBeerDtos(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle,
+                                        Boolean showInventory, Pageable pageable) {
+        if (showInventory != null && !showInventory) {    // no inventory - read the listing columns only, without entities
+            return listBeerSummaries(beerName, searchMode, beerStyle, pageable).map(beerMapper::beerSummaryToBeerDto);
+        }
+        return listBeers(beerName, searchMode, beerStyle, pageable).map(beerMapper::beerToBeerDto);
     }
 
-    public Page<Beer> listBeersByStyle(BeerStyle beerStyle, Pageable pageable) {
-        return beerRepository.findAllByBeerStyle(beerStyle, pageable);
+    private Slice<BeerSummary> listBeerSummaries(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle,
+                                                 Pageable pageable) {
+        if (!StringUtils.hasText(beerName)) {
+            return beerStyle == null
+                    ? beerRepository.findSummarySlice(pageable)
+                    : beerRepository.findSummarySliceByBeerStyle(beerStyle, pageable);
+        }
+
+        String searchName = BeerNameTokens.normalize(beerName);
+
+        if (searchMode == BeerSearchMode.PREFIX) {
+            String searchPrefix = LIKE_ESCAPE.escape(searchName) + "%";
+            return beerStyle == null
+                    ? beerRepository.findSummarySliceBySearchPrefix(searchPrefix, pageable)
+                    : beerRepository.findSummarySliceBySearchPrefixAndBeerStyle(searchPrefix, beerStyle, pageable);
+        }
+
+        String searchPattern = searchPattern(searchName, searchMode);
+        String wordsPattern = wordsPattern(searchName, searchMode);
+        Set<String> tokens = searchTokens(searchName, searchMode);
+        if (tokens.isEmpty()) {
+            return beerStyle == null
+                    ? beerRepository.findSummarySliceByNamePattern(searchPattern, wordsPattern, pageable)
+                    : beerRepository.findSummarySliceByNamePatternAndBeerStyle(searchPattern, wordsPattern, beerStyle,
+                    pageable);
+        }
+
+        String token = rarestToken(tokens);
+        return beerStyle == null
+                ? beerRepository.findSummarySliceByNameToken(token, searchPattern, wordsPattern, pageable)
+                : beerRepository.findSummarySliceByNameTokenAndBeerStyle(token, searchPattern, wordsPattern,
+                beerStyle, pageable);
     }
 
-    public Page<Beer> listBeersByName(String beerName, Pageable pageable) {
-        return beerRepository.findAllByBeerNameIsLikeIgnoreCase("%" + beerName + "%", pageable);
+    private Slice<Beer> listBeers(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle,
+                                  Pageable pageable) {
+        if (!StringUtils.hasText(beerName)) {
+            return beerStyle == null ? beerRepository.findAllSlice(pageable) : listBeersByStyle(beerStyle, pageable);
+        }
+
+        String searchName = BeerNameTokens.normalize(beerName);
+
+        if (searchMode == BeerSearchMode.PREFIX) {
+            return beerStyle == null
+                    ? beerRepository.findSliceBySearchNameStartingWith(searchName, pageable)
+                    : beerRepository.findSliceBySearchNameStartingWithAndBeerStyle(searchName, beerStyle, pageable);
+        }
+
+        String searchPattern = searchPattern(searchName, searchMode);
+        String wordsPattern = wordsPattern(searchName, searchMode);
+        Set<String> tokens = searchTokens(searchName, searchMode);
+        if (tokens.isEmpty()) {    // shorter than one token, so there is nothing to look up in the index
+            return beerStyle == null
+                    ? beerRepository.findSliceByNamePattern(searchPattern, wordsPattern, pageable)
+                    : beerRepository.findSliceByNamePatternAndBeerStyle(searchPattern, wordsPattern, beerStyle,
+                    pageable);
+        }
+
+        String token = rarestToken(tokens);
+        return beerStyle == null
+                ? beerRepository.findSliceByNameToken(token, searchPattern, wordsPattern, pageable)
+                : beerRepository.findSliceByNameTokenAndBeerStyle(token, searchPattern, wordsPattern, beerStyle,
+                pageable);
     }
 
+    private Slice<Beer> seekBeers(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle, BeerCursor after,
+                                  Pageable pageable) {
+        if (!StringUtils.hasText(beerName)) {
+            return beerStyle == null
+                    ? beerRepository.findSliceAfter(after.beerName(), after.id(), pageable)
+                    : beerRepository.findSliceByBeerStyleAfter(beerStyle, after.beerName(), after.id(), pageable);
+        }
+
+        String searchName = BeerNameTokens.normalize(beerName);
+
+        if (searchMode == BeerSearchMode.PREFIX) {
+            String searchPrefix = LIKE_ESCAPE.escape(searchName) + "%";
+            return beerStyle == null
+                    ? beerRepository.findSliceBySearchPrefixAfter(searchPrefix, after.beerName(), after.id(), pageable)
+                    : beerRepository.findSliceBySearchPrefixAndBeerStyleAfter(searchPrefix, beerStyle,
+                    after.beerName(), after.id(), pageable);
+        }
+
+        String searchPattern = searchPattern(searchName, searchMode);
+        String wordsPattern = wordsPattern(searchName, searchMode);
+        Set<String> tokens = searchTokens(searchName, searchMode);
+        if (tokens.isEmpty()) {
+            return beerStyle == null
+                    ? beerRepository.findSliceByNamePatternAfter(searchPattern, wordsPattern, after.beerName(),
+                    after.id(), pageable)
+                    : beerRepository.findSliceByNamePatternAndBeerStyleAfter(searchPattern, wordsPattern, beerStyle,
+                    after.beerName(), after.id(), pageable);
+        }
+
+        String token = rarestToken(tokens);
+        return beerStyle == null
+                ? beerRepository.findSliceByNameTokenAfter(token, searchPattern, wordsPattern, after.beerName(),
+                after.id(), pageable)
+                : beerRepository.findSliceByNameTokenAndBeerStyleAfter(token, searchPattern, wordsPattern,
+                beerStyle, after.beerName(), after.id(), pageable);
+    }
+
+    private long countBeers(String beerName, BeerSearchMode searchMode, BeerStyle beerStyle) {
+        if (!StringUtils.hasText(beerName)) {
+            return beerStyle == null ? beerRepository.count() : beerRepository.countByBeerStyle(beerStyle);
+        }
+
+        String searchName = BeerNameTokens.normalize(beerName);
+
+        if (searchMode == BeerSearchMode.PREFIX) {
+            return beerStyle == null
+                    ? beerRepository.countBySearchNameStartingWith(searchName)
+                    : beerRepository.countBySearchNameStartingWithAndBeerStyle(searchName, beerStyle);
+        }
+
+        String searchPattern = searchPattern(searchName, searchMode);
+        String wordsPattern = wordsPattern(searchName, searchMode);
+        Set<String> tokens = searchTokens(searchName, searchMode);
+        if (tokens.isEmpty()) {
+            return beerStyle == null
+                    ? beerRepository.countByNamePattern(searchPattern, wordsPattern)
+                    : beerRepository.countByNamePatternAndBeerStyle(searchPattern, wordsPattern, beerStyle);
+        }
+
+        String token = rarestToken(tokens);
+        return beerStyle == null
+                ? beerRepository.countByNameToken(token, searchPattern, wordsPattern)
+                : beerRepository.countByNameTokenAndBeerStyle(token, searchPattern, wordsPattern, beerStyle);
+    }
+
+    private Set<String> searchTokens(String searchName, BeerSearchMode searchMode) {
+        return searchMode == BeerSearchMode.FULLTEXT ? BeerNameTokens.ofWords(searchName) : BeerNameTokens.of(searchName);
+    }
+
+    // the search starts from the beers carrying its least common token, every other condition is checked on those only
+    private String rarestToken(Set<String> tokens) {
+        return beerNameTokenFrequencies.rarest(tokens, missingTokens -> beerRepository
+                .countBeersByNameTokens(missingTokens).stream()
+                .collect(Collectors.toMap(BeerNameTokenCount::token, BeerNameTokenCount::beers)));
+    }
+
+    private String searchPattern(String searchName, BeerSearchMode searchMode) {
+        // fulltext matches every word in any order, which the words pattern checks instead
+        return searchMode == BeerSearchMode.FULLTEXT ? "%" : "%" + LIKE_ESCAPE.escape(searchName) + "%";
+    }
+
+    private String wordsPattern(String searchName, BeerSearchMode searchMode) {
+        if (searchMode != BeerSearchMode.FULLTEXT) {
+            return null;
+        }
+        return Arrays.stream(searchName.split("\\s+"))
+                .map(word -> "(?=.*" + Pattern.quote(word) + ")")    // a lookahead per word, so their order does not matter
+                .collect(Collectors.joining("", "^", ""));
+    }
+
+    public Slice<Beer> listBeersByStyle(BeerStyle beerStyle, Pageable pageable) {
+        return beerRepository.findSliceByBeerStyle(beerStyle, pageable);
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public Optional<BeerDTO> getBeerById(UUID beerId) {
-        return Optional.ofNullable(beerMapper.beerToBeerDto(beerRepository.findById(beerId)
-                .orElse(null))
-        );
+        return beerDtoCache.getBeer(beerId, () -> Optional.ofNullable(beerMapper.beerToBeerDto(
+                beerRepository.findById(beerId).orElse(null))));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BeerBatchResultDTO getBeersByIds(List<UUID> beerIds) {
+        List<UUID> distinctIds = beerIds.stream().distinct().toList();
+
+        Map<UUID, BeerDTO> found = beerDtoCache.getBeers(distinctIds, this::loadBeersByIds);
+
+        return BeerBatchResultDTO.builder()
+                .beers(distinctIds.stream().filter(found::containsKey).map(found::get).toList())
+                .missingIds(distinctIds.stream().filter(beerId -> !found.containsKey(beerId)).toList())
+                .build();
+    }
+
+    private Map<UUID, BeerDTO> loadBeersByIds(Set<? extends UUID> beerIds) {
+        Map<UUID, BeerDTO> loaded = new HashMap<>();
+        List<UUID> ids = new ArrayList<>(beerIds);
+
+        // one IN query per chunk keeps the statement and its bind list bounded
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            beerRepository.findAllById(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())))
+                    .forEach(beer -> loaded.put(beer.getId(), beerMapper.beerToBeerDto(beer)));
+        }
+        return loaded;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Integer> getBeerVersion(UUID beerId) {
+        return beerRepository.findVersionById(beerId);
     }
 
     @Override
     public BeerDTO saveNewBeer(BeerDTO beer) {
-        return beerMapper.beerToBeerDto(
+        BeerDTO savedBeer = beerMapper.beerToBeerDto(
                 beerRepository.save(beerMapper.beerDtoToBeer(beer)));
+        beerCountCache.invalidate();
+        beerDtoCache.invalidatePages();
+        return savedBeer;
     }
 
+    @Transactional    // the found beer stays managed, so its name tokens can be updated along with the name
     @Override
-    public Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer) {
+    public Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer, Integer ifMatchVersion) {
         AtomicReference<Optional<BeerDTO>> atomicReference = new AtomicReference<>();
         beerRepository.findById(beerId).ifPresentOrElse(foundBeer -> {
+                    EntityVersions.check(ifMatchVersion, foundBeer.getVersion());
                     foundBeer.setBeerName(beer.getBeerName());
                     foundBeer.setBeerStyle(beer.getBeerStyle());
                     foundBeer.setQuantityOnHand(beer.getQuantityOnHand());
                     foundBeer.setUpc(beer.getUpc());
                     foundBeer.setPrice(beer.getPrice());
                     foundBeer.setVersion(beer.getVersion());
-                    atomicReference.set(Optional.of(beerMapper.beerToBeerDto(
-                            beerRepository.save(foundBeer))));
+                    atomicReference.set(Optional.of(beerMapper.beerToBeerDto(saveAndFlush(foundBeer, ifMatchVersion))));
+                    beerCountCache.invalidate();    // name or style may have moved the beer between filters
+                    beerDtoCache.evict(beerId);
                 },
                 () -> atomicReference.set(Optional.empty()));
 
@@ -125,16 +382,20 @@ public class BeerServiceJPA implements BeerService {
     public Boolean deleteById(UUID beerId) {
         if (beerRepository.existsById(beerId)) {
             beerRepository.deleteById(beerId);
+            beerCountCache.invalidate();
+            beerDtoCache.evict(beerId);
             return true;
         }
         return false;
     }
 
+    @Transactional
     @Override
-    public Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beer) {
+    public Optional<BeerDTO> patchBeerById(UUID beerId, BeerDTO beer, Integer ifMatchVersion) {
         AtomicReference<Optional<BeerDTO>> atomicReference = new AtomicReference<>();
 
         beerRepository.findById(beerId).ifPresentOrElse(foundBeer -> {
+                    EntityVersions.check(ifMatchVersion, foundBeer.getVersion());
                     if (StringUtils.hasText(beer.getBeerName())) {
                         foundBeer.setBeerName(beer.getBeerName());
                     }
@@ -151,11 +412,23 @@ public class BeerServiceJPA implements BeerService {
                         foundBeer.setPrice(beer.getPrice());
                     }
 
-                    atomicReference.set(Optional.of(beerMapper.beerToBeerDto(beerRepository.save(foundBeer))));
-
+                    atomicReference.set(Optional.of(beerMapper.beerToBeerDto(saveAndFlush(foundBeer, ifMatchVersion))));
+                    beerCountCache.invalidate();
+                    beerDtoCache.evict(beerId);
                 },
                 () -> atomicReference.set(Optional.empty()));
 
         return atomicReference.get();
     }
+
+    // the update's version check catches a write committed since the beer was read; flushed here so it can be told apart
+    private Beer saveAndFlush(Beer beer, Integer ifMatchVersion) {
+        try {
+            return beerRepository.saveAndFlush(beer);
+        } catch (OptimisticLockingFailureException e) {
+            throw ifMatchVersion != null
+                    ? new PreconditionFailedException(e)
+                    : new ConflictException("Beer was changed concurrently", e);
+        }
+    }
 }
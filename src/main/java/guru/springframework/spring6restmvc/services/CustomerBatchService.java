@@ -0,0 +1,11 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.CustomerBatchItemResult;
+import guru.springframework.spring6restmvc.model.CustomerBatchOperation;
+
+import java.util.List;
+
+public interface CustomerBatchService {
+
+    List<CustomerBatchItemResult> applyOperations(List<CustomerBatchOperation> operations);    // one result per operation, in request order
+}
@@ -0,0 +1,201 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.entities.Customer;
+import guru.springframework.spring6restmvc.mappers.CustomerMapper;
+import guru.springframework.spring6restmvc.model.CustomerBatchAction;
+import guru.springframework.spring6restmvc.model.CustomerBatchItemResult;
+import guru.springframework.spring6restmvc.model.CustomerBatchItemStatus;
+import guru.springframework.spring6restmvc.model.CustomerBatchOperation;
+import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CustomerBatchServiceImpl implements CustomerBatchService {
+    private final CustomerRepository customerRepository;
+    private final CustomerMapper customerMapper;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CustomerBatchServiceImpl(CustomerRepository customerRepository,
+                                    CustomerMapper customerMapper,
+                                    EntityManager entityManager,
+                                    Validator validator,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${customer.batch.chunk-size:500}") int chunkSize) {
+        this.customerRepository = customerRepository;
+        this.customerMapper = customerMapper;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    private record Item(int index, CustomerBatchOperation operation) {
+    }
+
+    @Override
+    public List<CustomerBatchItemResult> applyOperations(List<CustomerBatchOperation> operations) {
+        List<CustomerBatchItemResult> results = new ArrayList<>(operations.size());
+
+        for (int start = 0; start < operations.size(); start += chunkSize) {
+            List<Item> chunk = new ArrayList<>(chunkSize);
+            for (int index = start; index < Math.min(start + chunkSize, operations.size()); index++) {
+                chunk.add(new Item(index, operations.get(index)));
+            }
+            results.addAll(applyChunk(chunk));
+        }
+
+        return results;
+    }
+
+    private List<CustomerBatchItemResult> applyChunk(List<Item> chunk) {
+        try {
+            return transactionTemplate.execute(status -> applyInTransaction(chunk));
+        } catch (DataAccessException | PersistenceException e) {
+            if (chunk.size() == 1) {
+                Item item = chunk.get(0);
+                return List.of(result(item, CustomerBatchItemStatus.CONFLICT, item.operation().getCustomerId(), null,
+                        NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+            }
+
+            // the chunk was rolled back as a whole - replaying it row by row isolates the failing rows from their neighbours
+            log.debug("Customer batch chunk of {} failed, retrying row by row", chunk.size(), e);
+            return chunk.stream()
+                    .flatMap(item -> applyChunk(List.of(item)).stream())
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private List<CustomerBatchItemResult> applyInTransaction(List<Item> chunk) {
+        // one IN query loads every row the chunk touches, instead of a findById per operation
+        Set<UUID> customerIds = chunk.stream()
+                .map(item -> item.operation().getCustomerId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        List<Supplier<CustomerBatchItemResult>> pending = chunk.stream()
+                .map(item -> apply(item, customers))
+                .collect(Collectors.toList());
+
+        // inserts, updates and deletes go out as JDBC batches here; ids and versions are only final after the flush
+        entityManager.flush();
+        List<CustomerBatchItemResult> results = pending.stream().map(Supplier::get).collect(Collectors.toList());
+        entityManager.clear();
+
+        return results;
+    }
+
+    private Supplier<CustomerBatchItemResult> apply(Item item, Map<UUID, Customer> customers) {
+        CustomerBatchOperation operation = item.operation();
+
+        if (operation.getAction() == null) {    // an operation without an action is reported as INVALID, the others still run
+            return rejected(item, CustomerBatchItemStatus.INVALID, "action is required");
+        }
+
+        if (operation.getAction() == CustomerBatchAction.CREATE) {
+            String violations = violations(operation.getCustomer());
+            if (violations != null) {
+                return rejected(item, CustomerBatchItemStatus.INVALID, violations);
+            }
+
+            Customer customer = customerMapper.customerDtoToCustomer(operation.getCustomer());
+            customer.setId(null);
+            customer.setVersion(null);
+            entityManager.persist(customer);
+            return () -> result(item, CustomerBatchItemStatus.CREATED, customer.getId(), customer.getVersion(), null);
+        }
+
+        if (operation.getCustomerId() == null) {
+            return rejected(item, CustomerBatchItemStatus.INVALID, "customerId is required");
+        }
+
+        Customer customer = customers.get(operation.getCustomerId());
+        if (customer == null) {
+            return rejected(item, CustomerBatchItemStatus.NOT_FOUND, null);
+        }
+        if (operation.getVersion() != null && !operation.getVersion().equals(customer.getVersion())) {
+            return rejected(item, CustomerBatchItemStatus.PRECONDITION_FAILED,
+                    "current version is " + customer.getVersion());
+        }
+
+        switch (operation.getAction()) {
+            case UPDATE -> {
+                String violations = violations(operation.getCustomer());
+                if (violations != null) {
+                    return rejected(item, CustomerBatchItemStatus.INVALID, violations);
+                }
+                customer.setName(operation.getCustomer().getName());
+            }
+            case PATCH -> {
+                if (operation.getCustomer() != null && StringUtils.hasText(operation.getCustomer().getName())) {
+                    customer.setName(operation.getCustomer().getName());
+                }
+            }
+            case DELETE -> {
+                customers.remove(customer.getId());    // later operations on the same id in this chunk see it as gone
+                entityManager.remove(customer);
+                return () -> result(item, CustomerBatchItemStatus.DELETED, customer.getId(), null, null);
+            }
+        }
+
+        return () -> result(item, CustomerBatchItemStatus.UPDATED, customer.getId(), customer.getVersion(), null);
+    }
+
+    private String violations(CustomerDTO customer) {
+        if (customer == null) {
+            return "customer is required";
+        }
+
+        Set<ConstraintViolation<CustomerDTO>> violations = validator.validate(customer);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Supplier<CustomerBatchItemResult> rejected(Item item, CustomerBatchItemStatus status, String message) {
+        CustomerBatchItemResult result = result(item, status, item.operation().getCustomerId(), null, message);
+        return () -> result;
+    }
+
+    private static CustomerBatchItemResult result(Item item, CustomerBatchItemStatus status, UUID customerId,
+                                                  Integer version, String message) {
+        return CustomerBatchItemResult.builder()
+                .index(item.index())
+                .status(status)
+                .customerId(customerId)
+                .version(version)
+                .message(message)
+                .build();
+    }
+}
@@ -1,22 +1,27 @@
 package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.model.CustomerDTO;
+import org.springframework.data.domain.Page;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface CustomerService {
 
-    List<CustomerDTO> getAllCustomers();
+    Page<CustomerDTO> getAllCustomers(Integer pageNumber, Integer pageSize);
+
+    void streamAllCustomers(Consumer<CustomerDTO> consumer);    // one customer at a time, memory does not grow with the table
 
     Optional<CustomerDTO> getCustomerById(UUID customerId);
 
+    Optional<Integer> getCustomerVersion(UUID customerId);
+
     CustomerDTO saveNewCustomer(CustomerDTO customer);
 
-    Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customer);
+    Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customer, Integer ifMatchVersion);    // same If-Match contract as BeerService
 
     Boolean deleteById(UUID customerId);
 
-    Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer);
+    Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer, Integer ifMatchVersion);
 }
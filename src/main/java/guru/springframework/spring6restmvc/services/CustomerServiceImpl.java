@@ -2,16 +2,18 @@ package guru.springframework.spring6restmvc.services;
 
 import guru.springframework.spring6restmvc.model.CustomerDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -51,8 +53,9 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    public Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer) {
+    public Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer, Integer ifMatchVersion) {
         CustomerDTO existingCustomer = customerMap.get(customerId);
+        EntityVersions.check(ifMatchVersion, existingCustomer.getVersion());
 
         if (StringUtils.hasText(customer.getName())) {
             existingCustomer.setName(customer.getName());
@@ -67,8 +70,13 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    public List<CustomerDTO> getAllCustomers() {
-        return new ArrayList<>(customerMap.values());
+    public Page<CustomerDTO> getAllCustomers(Integer pageNumber, Integer pageSize) {
+        return new PageImpl<>(new ArrayList<>(customerMap.values()));
+    }
+
+    @Override
+    public void streamAllCustomers(Consumer<CustomerDTO> consumer) {
+        customerMap.values().forEach(consumer);
     }
 
     @Override
@@ -78,6 +86,11 @@ public class CustomerServiceImpl implements CustomerService {
         return Optional.of(customerMap.get(customerId));
     }
 
+    @Override
+    public Optional<Integer> getCustomerVersion(UUID customerId) {
+        return Optional.ofNullable(customerMap.get(customerId)).map(CustomerDTO::getVersion);
+    }
+
     @Override
     public CustomerDTO saveNewCustomer(CustomerDTO customer) {
         CustomerDTO savedCustomer = CustomerDTO.builder()
@@ -94,8 +107,9 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    public Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customer) {
+    public Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customer, Integer ifMatchVersion) {
         CustomerDTO existingCustomer = customerMap.get(customerId);
+        EntityVersions.check(ifMatchVersion, existingCustomer.getVersion());
         existingCustomer.setName(customer.getName());
         existingCustomer.setVersion(customer.getVersion());
         return Optional.of(existingCustomer);
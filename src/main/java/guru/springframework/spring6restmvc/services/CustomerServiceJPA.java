@@ -1,18 +1,27 @@
 package guru.springframework.spring6restmvc.services;
 
+import guru.springframework.spring6restmvc.entities.Customer;
+import guru.springframework.spring6restmvc.exceptions.ConflictException;
+import guru.springframework.spring6restmvc.exceptions.PreconditionFailedException;
 import guru.springframework.spring6restmvc.mappers.CustomerMapper;
 import guru.springframework.spring6restmvc.model.CustomerDTO;
 import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Primary
@@ -20,34 +29,84 @@ import java.util.stream.Collectors;
 public class CustomerServiceJPA implements CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final EntityManager entityManager;
 
+    private static final int DEFAULT_PAGE = 0;
+    private static final int DEFAULT_PAGE_SIZE = 25;
+
+    @Transactional(readOnly = true)
     @Override
-    public List<CustomerDTO> getAllCustomers() {
-        return customerRepository.findAll().stream()
-                .map(customerMapper::customerToCustomerDto)
-                .collect(Collectors.toList());
+    public Page<CustomerDTO> getAllCustomers(Integer pageNumber, Integer pageSize) {
+        return customerRepository.findAll(buildPageRequest(pageNumber, pageSize))
+                .map(customerMapper::customerToCustomerDto);
+    }
+
+    @Transactional(readOnly = true)    // the stream reads from an open result set, which needs the connection for its whole lifetime
+    @Override
+    public void streamAllCustomers(Consumer<CustomerDTO> consumer) {
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            customers.forEach(customer -> {
+                consumer.accept(customerMapper.customerToCustomerDto(customer));
+                entityManager.detach(customer);    // keeps the persistence context empty however many rows are streamed
+            });
+        }
+    }
+
+    public PageRequest buildPageRequest(Integer pageNumber, Integer pageSize) {
+
+        int queryPageNumber;
+        int queryPageSize;
+
+        if (pageNumber != null && pageNumber > 0) {
+            queryPageNumber = pageNumber - 1;
+        } else {
+            queryPageNumber = DEFAULT_PAGE;
+        }
+
+        if (pageSize == null) {
+            queryPageSize = DEFAULT_PAGE_SIZE;
+        } else {
+            if (pageSize > 1000) {
+                queryPageSize = 1000;
+            } else {
+                queryPageSize = pageSize;
+            }
+        }
+
+        Sort sort = Sort.by(Sort.Order.asc("id"));    // ids are time ordered, so this is creation order straight off the primary key
+
+        return PageRequest.of(queryPageNumber, queryPageSize, sort);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public Optional<CustomerDTO> getCustomerById(UUID customerId) {
         return Optional.ofNullable(customerMapper.customerToCustomerDto(customerRepository.findById(customerId)
                 .orElse(null)));
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<Integer> getCustomerVersion(UUID customerId) {
+        return customerRepository.findVersionById(customerId);
+    }
+
     @Override
     public CustomerDTO saveNewCustomer(CustomerDTO customerDTO) {
         return customerMapper.customerToCustomerDto(
                 customerRepository.save(customerMapper.customerDtoToCustomer(customerDTO)));
     }
 
+    @Transactional    // the version is compared on the customer this transaction writes
     @Override
-    public Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customer) {
+    public Optional<CustomerDTO> updateCustomerById(UUID customerId, CustomerDTO customer, Integer ifMatchVersion) {
         AtomicReference<Optional<CustomerDTO>> atomicReference = new AtomicReference<>();
 
         customerRepository.findById(customerId).ifPresentOrElse(foundCustomer -> {
+                    EntityVersions.check(ifMatchVersion, foundCustomer.getVersion());
                     foundCustomer.setName(customer.getName());
                     atomicReference.set(Optional.of(customerMapper.customerToCustomerDto(
-                            customerRepository.save(foundCustomer))));
+                            saveAndFlush(foundCustomer, ifMatchVersion))));
                 },
                 () -> atomicReference.set(Optional.empty()));
 
@@ -63,19 +122,32 @@ public class CustomerServiceJPA implements CustomerService {
         return false;
     }
 
+    @Transactional
     @Override
-    public Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer) {
+    public Optional<CustomerDTO> patchCustomerById(UUID customerId, CustomerDTO customer, Integer ifMatchVersion) {
         AtomicReference<Optional<CustomerDTO>> atomicReference = new AtomicReference<>();
 
         customerRepository.findById(customerId).ifPresentOrElse(foundCustomer -> {
+                    EntityVersions.check(ifMatchVersion, foundCustomer.getVersion());
                     if (StringUtils.hasText(customer.getName())) {
                         foundCustomer.setName(customer.getName());
                     }
                     atomicReference.set(Optional.of(customerMapper.customerToCustomerDto(
-                            customerRepository.save(foundCustomer))));
+                            saveAndFlush(foundCustomer, ifMatchVersion))));
                 },
                 () -> atomicReference.set(Optional.empty()));
 
         return atomicReference.get();
     }
+
+    // the update's version check catches a write committed since the customer was read
+    private Customer saveAndFlush(Customer customer, Integer ifMatchVersion) {
+        try {
+            return customerRepository.saveAndFlush(customer);
+        } catch (OptimisticLockingFailureException e) {
+            throw ifMatchVersion != null
+                    ? new PreconditionFailedException(e)
+                    : new ConflictException("Customer was changed concurrently", e);
+        }
+    }
 }
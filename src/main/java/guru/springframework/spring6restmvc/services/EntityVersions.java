@@ -0,0 +1,16 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.exceptions.PreconditionFailedException;
+
+// If-Match is checked against the @Version of the row loaded in the writing transaction, not in a query before it
+final class EntityVersions {
+
+    private EntityVersions() {
+    }
+
+    static void check(Integer ifMatchVersion, Integer currentVersion) {
+        if (ifMatchVersion != null && !ifMatchVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+ALTER TABLE beer
+    ADD COLUMN search_name varchar(50);
+
+UPDATE beer
+SET search_name = lower(trim(beer_name));
+
+CREATE INDEX beer_search_name_idx ON beer (search_name);
+
+CREATE TABLE beer_name_token
+(
+    beer_id varchar(36) NOT NULL,
+    token   varchar(3)  NOT NULL,
+    PRIMARY KEY (token, beer_id),
+    INDEX bnt_beer_id_idx (beer_id),
+    CONSTRAINT bnt_beer_id_fk FOREIGN KEY (beer_id) REFERENCES beer (id)
+) ENGINE = InnoDB;
+
+INSERT INTO beer_name_token (beer_id, token)
+WITH RECURSIVE positions (n) AS (SELECT 1
+                                 UNION ALL
+                                 SELECT n + 1
+                                 FROM positions
+                                 WHERE n < 48)
+SELECT DISTINCT b.id, substring(b.search_name, p.n, 3)
+FROM beer b
+         JOIN positions p ON p.n <= char_length(b.search_name) - 2;
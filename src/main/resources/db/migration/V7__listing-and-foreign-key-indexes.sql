@@ -0,0 +1,10 @@
+-- listing filters and keyset pagination always order by (beer_name, id)
+CREATE INDEX beer_name_id_idx ON beer (beer_name, id);
+CREATE INDEX beer_style_name_id_idx ON beer (beer_style, beer_name, id);
+
+-- explicit foreign key indexes - InnoDB drops the implicit ones it created for the constraints
+CREATE INDEX bol_beer_id_idx ON beer_order_line (beer_id);
+CREATE INDEX bol_beer_order_id_idx ON beer_order_line (beer_order_id);
+CREATE INDEX bc_category_id_idx ON beer_category (category_id);
+CREATE INDEX bo_customer_id_idx ON beer_order (customer_id);
+CREATE INDEX bo_shipment_id_idx ON beer_order (beer_order_shipment_id);
@@ -0,0 +1,48 @@
+package guru.springframework.spring6restmvc;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements Hibernate prepares between two points of a test, so an N+1 regression fails the build.
+ * Reads the global statistics without clearing them, and assumes nothing else runs queries in the meantime.
+ */
+public class StatementCounter {
+    private final Statistics statistics;
+    private long start;
+
+    private StatementCounter(Statistics statistics) {
+        this.statistics = statistics;
+        this.start = statistics.getPrepareStatementCount();
+    }
+
+    public static StatementCounter start(EntityManager entityManager) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        return new StatementCounter(statistics);
+    }
+
+    public long count() {
+        return statistics.getPrepareStatementCount() - start;
+    }
+
+    public void reset() {
+        start = statistics.getPrepareStatementCount();
+    }
+
+    public void assertStatements(long expected) {
+        assertThat(count()).as("prepared statements").isEqualTo(expected);
+    }
+
+    public <T> T assertStatements(long expected, Supplier<T> operation) {
+        reset();
+        T result = operation.get();
+        assertStatements(expected);
+        return result;
+    }
+}
@@ -2,7 +2,12 @@ package guru.springframework.spring6restmvc.bootstrap;
 
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
 import guru.springframework.spring6restmvc.repositories.CustomerRepository;
-import guru.springframework.spring6restmvc.services.BeerCsvService;
+import guru.springframework.spring6restmvc.services.BeerBatchWriter;
+import guru.springframework.spring6restmvc.services.BeerCountCache;
+import guru.springframework.spring6restmvc.services.BeerDtoCache;
+import guru.springframework.spring6restmvc.services.BeerImportMetrics;
+import guru.springframework.spring6restmvc.services.BeerCsvImportService;
+import guru.springframework.spring6restmvc.services.BeerCsvImportServiceImpl;
 import guru.springframework.spring6restmvc.services.BeerCsvServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,7 +19,8 @@ import org.springframework.context.annotation.Import;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
-@Import(BeerCsvServiceImpl.class)
+@Import({BeerCsvServiceImpl.class, BeerCsvImportServiceImpl.class, BeerBatchWriter.class,
+        BeerCountCache.class, BeerDtoCache.class, BeerImportMetrics.class})
 class BootsStrapDataTest {
 
     @Autowired
@@ -24,13 +30,13 @@ class BootsStrapDataTest {
     CustomerRepository customerRepository;
 
     @Autowired
-    BeerCsvService csvService;
+    BeerCsvImportService csvImportService;
 
     BootsStrapData bootsStrapData;
 
     @BeforeEach
     void setUp() {
-        bootsStrapData = new BootsStrapData(beerRepository, customerRepository, csvService);
+        bootsStrapData = new BootsStrapData(beerRepository, customerRepository, csvImportService);
     }
 
     @Test
@@ -0,0 +1,87 @@
+package guru.springframework.spring6restmvc.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Adaptive Bulkhead tests")
+class AdaptiveBulkheadTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    @DisplayName("Requests over the limit are turned away after the wait budget")
+    void requestsOverTheLimitAreRejected() throws Exception {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("test", 1, 2, Duration.ofMillis(10), Duration.ofMillis(20));
+
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        assertThat(bulkhead.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Waiting request is admitted as soon as a permit is released")
+    void waitingRequestIsAdmittedOnRelease() throws Exception {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("test", 1, 1, Duration.ofMillis(10), Duration.ofSeconds(5));
+        assertThat(bulkhead.tryAcquire()).isTrue();
+
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.tryAcquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        bulkhead.release(FAST);
+
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Slow requests shrink the limit down to the minimum")
+    void slowRequestsShrinkTheLimit() throws Exception {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("test", 2, 10, Duration.ofMillis(10), Duration.ofMillis(1));
+
+        bulkhead.tryAcquire();
+        bulkhead.release(SLOW);
+        assertThat(bulkhead.getLimit()).isEqualTo(9);
+
+        for (int i = 0; i < 50; i++) {
+            bulkhead.tryAcquire();
+            bulkhead.release(SLOW);
+        }
+        assertThat(bulkhead.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Fast requests grow the limit back only while the bulkhead is busy")
+    void fastRequestsGrowTheLimitWhenBusy() throws Exception {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("test", 1, 4, Duration.ofMillis(10), Duration.ofMillis(1));
+        for (int i = 0; i < 20; i++) {
+            bulkhead.tryAcquire();
+            bulkhead.release(SLOW);
+        }
+        assertThat(bulkhead.getLimit()).isOne();
+
+        for (int i = 0; i < 20; i++) {    // one request at a time never needs more than about two permits
+            bulkhead.tryAcquire();
+            bulkhead.release(FAST);
+        }
+        assertThat(bulkhead.getLimit()).isEqualTo(2);
+
+        for (int i = 0; i < 20; i++) {
+            bulkhead.tryAcquire();
+            bulkhead.tryAcquire();
+            bulkhead.release(FAST);
+            bulkhead.release(FAST);
+        }
+        assertThat(bulkhead.getLimit()).isEqualTo(4);
+    }
+}
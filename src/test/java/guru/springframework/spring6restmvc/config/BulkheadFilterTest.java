@@ -0,0 +1,106 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controller.BeerController;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"bulkhead.max-wait=10ms", "bulkhead.catalog-search.max-limit=1"})
+@AutoConfigureMockMvc
+@DisplayName("Bulkhead Filter tests")
+class BulkheadFilterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    BulkheadFilter bulkheadFilter;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    AdaptiveBulkhead searchBulkhead;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        searchBulkhead = bulkheadFilter.getBulkhead(BulkheadFilter.CATALOG_SEARCH);
+        assertThat(searchBulkhead.tryAcquire()).isTrue();    // a slow search holding the only permit
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchBulkhead.release(-1);
+    }
+
+    @Test
+    @DisplayName("Searches over the limit are shed with 503 while beer reads are still served")
+    void fullSearchBulkheadDoesNotStarveReads() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "IPA")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        mockMvc.perform(get(BeerController.BEER_PATH_ID, beerRepository.findAll().get(0).getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("bulkhead.rejected").tag("bulkhead", BulkheadFilter.CATALOG_SEARCH)
+                .counter().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("bulkhead.queue.time").tag("bulkhead", BulkheadFilter.CATALOG_READ)
+                .tag("outcome", "admitted").timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(bulkheadFilter.getBulkhead(BulkheadFilter.CATALOG_READ).getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Requests are classified by path, method and search parameter")
+    void requestsAreClassifiedByEndpoint() {
+        assertThat(BulkheadFilter.endpointClass(request("GET", "/api/v1/beer", "beerName"))).isEqualTo(BulkheadFilter.CATALOG_SEARCH);
+        assertThat(BulkheadFilter.endpointClass(request("GET", "/api/v1/beer", null))).isEqualTo(BulkheadFilter.CATALOG_READ);
+        assertThat(BulkheadFilter.endpointClass(request("POST", BeerController.BEER_BATCH_GET_PATH, null))).isEqualTo(BulkheadFilter.CATALOG_READ);
+        assertThat(BulkheadFilter.endpointClass(request("PATCH", "/api/v1/beer/1", null))).isEqualTo(BulkheadFilter.CATALOG_WRITE);
+        assertThat(BulkheadFilter.endpointClass(request("POST", "/api/v1/customer", null))).isEqualTo(BulkheadFilter.CUSTOMER);
+        assertThat(BulkheadFilter.endpointClass(request("GET", "/api/v1/beer-order/1", null))).isEqualTo(BulkheadFilter.ORDER);
+        assertThat(BulkheadFilter.endpointClass(request("GET", "/actuator/health", null))).isNull();
+    }
+
+    @Test
+    @DisplayName("Endpoint classes split the connection pool between them")
+    void endpointClassesSplitConnectionPool() {
+        // no pool size is set here, so the classes split Hikari's default of ten connections
+        assertThat(bulkheadFilter.getBulkhead(BulkheadFilter.ORDER).getLimit()).isEqualTo(2);
+        assertThat(bulkheadFilter.getBulkhead(BulkheadFilter.CUSTOMER).getLimit()).isEqualTo(2);
+        assertThat(Stream.of(BulkheadFilter.CATALOG_SEARCH, BulkheadFilter.CATALOG_READ, BulkheadFilter.CATALOG_WRITE,
+                        BulkheadFilter.CUSTOMER, BulkheadFilter.ORDER)
+                .mapToInt(name -> bulkheadFilter.getBulkhead(name).getLimit())
+                .sum()).isLessThanOrEqualTo(10);
+    }
+
+    private MockHttpServletRequest request(String method, String path, String parameter) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (parameter != null) {
+            request.addParameter(parameter, "x");
+        }
+        return request;
+    }
+}
@@ -0,0 +1,68 @@
+package guru.springframework.spring6restmvc.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("Connection Limiting DataSource tests")
+class ConnectionLimitingDataSourceTest {
+
+    DataSource targetDataSource;
+    Connection targetConnection;
+    ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        targetDataSource = mock(DataSource.class);
+        targetConnection = mock(Connection.class);
+        given(targetDataSource.getConnection()).willReturn(targetConnection);
+
+        dataSource = new ConnectionLimitingDataSource(targetDataSource, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Callers over the limit time out until a connection is closed")
+    void callersOverTheLimitWait() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        assertThat(dataSource.availablePermits()).isZero();
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+
+        connection.close();
+        assertThat(dataSource.availablePermits()).isOne();
+        verify(targetConnection).close();
+        dataSource.getConnection();
+    }
+
+    @Test
+    @DisplayName("Closing a connection twice gives back one permit")
+    void closingTwiceReleasesOnce() throws SQLException {
+        Connection connection = dataSource.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertThat(dataSource.availablePermits()).isOne();
+    }
+
+    @Test
+    @DisplayName("Permit is given back when the pool fails to hand out a connection")
+    void permitIsReleasedWhenPoolFails() throws SQLException {
+        given(targetDataSource.getConnection()).willThrow(new SQLTransientConnectionException("pool timeout"));
+
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        assertThat(dataSource.availablePermits()).isOne();
+    }
+}
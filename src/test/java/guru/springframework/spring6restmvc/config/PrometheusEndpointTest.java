@@ -0,0 +1,53 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controller.BeerController;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@DisplayName("Prometheus Endpoint tests")
+class PrometheusEndpointTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Test
+    @DisplayName("Scrape exposes request and service histograms, pool, cache and import meters")
+    void scrapeExposesApplicationMeters() throws Exception {
+        UUID beerId = beerRepository.findAll().get(0).getId();
+        mockMvc.perform(get(BeerController.BEER_PATH_ID, beerId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("service_method_seconds_bucket{"),
+                        containsString("service=\"BeerService\""),
+                        containsString("hikaricp_connections_active"),
+                        containsString("cache_hit_ratio{cache=\"beerDto\""),
+                        containsString("beer_import_rows_total"),
+                        containsString("beer_import_batch_writes_seconds_count"))));
+    }
+}
@@ -0,0 +1,205 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controller.BeerController;
+import guru.springframework.spring6restmvc.controller.CustomerController;
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.entities.Customer;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import guru.springframework.spring6restmvc.services.CustomerService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "datasource.replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "datasource.replica.lag-query=select lag_seconds from replica_lag",
+        "datasource.replica.lag-check-interval=1h"
+})
+@AutoConfigureMockMvc
+@DisplayName("Read Replica Routing tests")
+class ReadReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    ReplicaLagMonitor replicaLagMonitor;
+
+    Customer testCustomer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        testCustomer = customerRepository.save(Customer.builder().name("Replicated Customer").build());
+        replicate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteById(testCustomer.getId());
+    }
+
+    @Test
+    @DisplayName("Read-only transactions are served by the replica")
+    void readOnlyTransactionsAreServedByReplica() throws Exception {
+        Customer unreplicated = customerRepository.save(Customer.builder().name("Unreplicated Customer").build());
+        try {
+            assertThat(customerService.getCustomerById(unreplicated.getId())).isEmpty();
+
+            replicate();
+            assertThat(customerService.getCustomerById(unreplicated.getId())).isPresent();
+        } finally {
+            customerRepository.deleteById(unreplicated.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Replica lagging more than max-lag is taken out of the rotation")
+    void laggingReplicaIsTakenOutOfRotation() throws Exception {
+        Customer unreplicated = customerRepository.save(Customer.builder().name("Unreplicated Customer").build());
+        try {
+            execute(REPLICA_URL, "update replica_lag set lag_seconds = 60");
+            replicaLagMonitor.checkReplicaLag();
+
+            assertThat(customerService.getCustomerById(unreplicated.getId())).isPresent();
+        } finally {
+            customerRepository.deleteById(unreplicated.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Client reads its own writes from the primary until the replicas catch up")
+    void clientReadsItsOwnWrites() throws Exception {
+        Cookie readPrimary = mockMvc.perform(patch(CustomerController.CUSTOMER_PATH_ID, testCustomer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed Customer\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(cookie().httpOnly(ReadYourWritesFilter.COOKIE, true))
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        mockMvc.perform(get(CustomerController.CUSTOMER_PATH_ID, testCustomer.getId())
+                        .cookie(readPrimary)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed Customer"));
+
+        mockMvc.perform(get(CustomerController.CUSTOMER_PATH_ID, testCustomer.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Replicated Customer"));
+    }
+
+    @Test
+    @DisplayName("Batch get is a read - served by the replica and does not pin the client to the primary")
+    void batchGetIsServedByReplica() throws Exception {
+        Beer unreplicated = beerRepository.save(Beer.builder()
+                .beerName("Unreplicated Beer")
+                .beerStyle(BeerStyle.IPA)
+                .upc("12345")
+                .price(new BigDecimal("9.99"))
+                .build());
+        try {
+            mockMvc.perform(post(BeerController.BEER_BATCH_GET_PATH)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_JSON)
+                            .content("[\"" + unreplicated.getId() + "\"]"))
+                    .andExpect(status().isOk())
+                    .andExpect(cookie().doesNotExist(ReadYourWritesFilter.COOKIE))
+                    .andExpect(jsonPath("$.beers.length()").value(0))
+                    .andExpect(jsonPath("$.missingIds[0]").value(unreplicated.getId().toString()));
+        } finally {
+            beerRepository.deleteById(unreplicated.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Streamed export of a pinned client is read from the primary")
+    void pinnedStreamIsReadFromPrimary() throws Exception {
+        Cookie readPrimary = mockMvc.perform(patch(CustomerController.CUSTOMER_PATH_ID, testCustomer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed Customer\"}"))
+                .andExpect(status().isNoContent())
+                .andReturn().getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        assertThat(streamCustomers(readPrimary)).contains("Renamed Customer").doesNotContain("Replicated Customer");
+        assertThat(streamCustomers(null)).contains("Replicated Customer").doesNotContain("Renamed Customer");
+    }
+
+    private String streamCustomers(Cookie cookie) throws Exception {
+        MockHttpServletRequestBuilder streamRequest = get(CustomerController.CUSTOMER_PATH).accept(MediaType.APPLICATION_NDJSON);
+        if (cookie != null) {
+            streamRequest.cookie(cookie);
+        }
+        MvcResult result = mockMvc.perform(streamRequest)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    /**
+     * Copies the primary to the replica as it is now - the test's stand-in for replication.
+     */
+    private void replicate() throws Exception {
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            execute(PRIMARY_URL, "script to '" + script + "'");
+            execute(REPLICA_URL, "drop all objects");
+            execute(REPLICA_URL, "runscript from '" + script + "'");
+            execute(REPLICA_URL, "create table replica_lag (lag_seconds int)");
+            execute(REPLICA_URL, "insert into replica_lag values (0)");
+        } finally {
+            Files.delete(script);
+        }
+        replicaLagMonitor.checkReplicaLag();
+    }
+
+    private void execute(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package guru.springframework.spring6restmvc.config;
+
+import guru.springframework.spring6restmvc.controller.BeerController;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "sql.metrics.server-timing=true")
+@AutoConfigureMockMvc
+@DisplayName("SQL Metrics Filter tests")
+class SqlMetricsFilterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Test
+    @DisplayName("Statements of a request are counted per controller method and reported in Server-Timing")
+    void statementsAreCountedPerControllerMethod() throws Exception {
+        UUID beerId = beerRepository.findAll().get(0).getId();
+
+        mockMvc.perform(get(BeerController.BEER_PATH_ID, beerId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlMetricsFilter.SERVER_TIMING,
+                        matchesPattern("db;dur=\\d+\\.\\d;desc=\"\\d+ statements\"")));
+
+        DistributionSummary statements = meterRegistry.get("http.server.requests.sql.statements")
+                .tag("handler", "BeerController.getBeerById")
+                .summary();
+        assertThat(statements.count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("http.server.requests.sql.time")
+                .tag("handler", "BeerController.getBeerById")
+                .timer().count()).isEqualTo(statements.count());
+    }
+
+    @Test
+    @DisplayName("Responses without a body still get the Server-Timing header")
+    void responsesWithoutBodyGetServerTiming() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH_ID, UUID.randomUUID())
+                        .header("If-None-Match", "\"0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(header().exists(SqlMetricsFilter.SERVER_TIMING));
+    }
+}
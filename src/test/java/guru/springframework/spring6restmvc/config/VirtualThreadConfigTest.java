@@ -0,0 +1,58 @@
+package guru.springframework.spring6restmvc.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.threads.virtual.enabled=true", "bulkhead.enabled=false"})
+@DisplayName("Virtual Thread Config tests")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    @DisplayName("Requests are served on virtual threads")
+    void requestsRunOnVirtualThreads() {
+        assertThat(restTemplate.getForObject("/test/thread", Boolean.class)).isTrue();
+    }
+
+    @Test
+    @DisplayName("DataSource is limited by the connection semaphore")
+    void dataSourceIsConnectionLimited() throws SQLException {
+        assertThat(dataSource.isWrapperFor(ConnectionLimitingDataSource.class)).isTrue();
+    }
+
+    @TestConfiguration
+    static class ThreadControllerConfig {
+
+        @Bean
+        ThreadController threadController() {
+            return new ThreadController();
+        }
+    }
+
+    @RestController
+    static class ThreadController {
+
+        @GetMapping("/test/thread")
+        boolean isVirtual() {
+            return Thread.currentThread().isVirtual();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.model.BeerBulkJobDTO;
+import guru.springframework.spring6restmvc.model.BeerBulkJobStatus;
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("Beer Bulk Controller Integration tests")
+class BeerBulkControllerIT {
+    private static final String BULK_UPC = "BULK-IT";
+    private static final String BULK_CSV_ROW = "990001";
+
+    @Autowired
+    BeerBulkController beerBulkController;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll(beerRepository.findAll().stream()
+                .filter(beer -> beer.getUpc().equals(BULK_UPC) || beer.getUpc().equals(BULK_CSV_ROW))
+                .toList());
+    }
+
+    @Test
+    @DisplayName("Bulk JSON upload reports accepted and rejected rows")
+    void bulkJsonUploadReportsAcceptedAndRejectedRows() throws Exception {
+        BeerDTO validBeer = BeerDTO.builder()
+                .beerName("Bulk Beer")
+                .beerStyle(BeerStyle.ALE)
+                .upc(BULK_UPC)
+                .price(new BigDecimal("9.99"))
+                .build();
+        BeerDTO invalidBeer = BeerDTO.builder()
+                .beerName("Bulk Beer Without Price")
+                .beerStyle(BeerStyle.ALE)
+                .upc(BULK_UPC)
+                .build();
+
+        ResponseEntity responseEntity = beerBulkController.handleBulkPost(List.of(validBeer, validBeer, invalidBeer));
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatusCode.valueOf(202));
+
+        BeerBulkJobDTO job = awaitCompletion(((BeerBulkJobDTO) responseEntity.getBody()).getJobId());
+
+        assertThat(job.getStatus()).isEqualTo(BeerBulkJobStatus.COMPLETED);
+        assertThat(job.getRowsAccepted()).isEqualTo(2);
+        assertThat(job.getRowsRejected()).isEqualTo(1);
+        assertThat(job.getRejectedRows().get(0).getRow()).isEqualTo(3);
+        assertThat(job.getRejectedRows().get(0).getErrors().get(0)).containsKey("price");
+    }
+
+    @Test
+    @DisplayName("Null element of a bulk JSON upload is rejected as its own row")
+    void bulkJsonUploadRejectsNullRow() throws Exception {
+        BeerDTO validBeer = BeerDTO.builder()
+                .beerName("Bulk Beer")
+                .beerStyle(BeerStyle.ALE)
+                .upc(BULK_UPC)
+                .price(new BigDecimal("9.99"))
+                .build();
+
+        ResponseEntity responseEntity = beerBulkController.handleBulkPost(Arrays.asList(null, validBeer));
+        BeerBulkJobDTO job = awaitCompletion(((BeerBulkJobDTO) responseEntity.getBody()).getJobId());
+
+        assertThat(job.getStatus()).isEqualTo(BeerBulkJobStatus.COMPLETED);
+        assertThat(job.getRowsAccepted()).isEqualTo(1);
+        assertThat(job.getRowsRejected()).isEqualTo(1);
+        assertThat(job.getRejectedRows().get(0).getRow()).isEqualTo(1);
+        assertThat(job.getRejectedRows().get(0).getErrors().get(0)).containsKey("row");
+    }
+
+    @Test
+    @DisplayName("Bulk CSV upload imports every row")
+    void bulkCsvUploadImportsEveryRow() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "beers.csv", "text/csv",
+                ("\"row\",\"count.x\",\"beer\",\"style\"\n"
+                        + "\"" + BULK_CSV_ROW + "\",1,\"Bulk Lager\",\"American Pale Lager\"\n").getBytes());
+
+        ResponseEntity responseEntity = beerBulkController.handleBulkCsvPost(file);
+        BeerBulkJobDTO job = awaitCompletion(((BeerBulkJobDTO) responseEntity.getBody()).getJobId());
+
+        assertThat(job.getStatus()).isEqualTo(BeerBulkJobStatus.COMPLETED);
+        assertThat(job.getRowsAccepted()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Malformed CSV row is rejected with its row number and the rest of the file is imported")
+    void malformedCsvRowIsRejected() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "beers.csv", "text/csv",
+                ("\"row\",\"count.x\",\"beer\",\"style\"\n"
+                        + "\"" + BULK_CSV_ROW + "\",\"not a number\",\"Broken Lager\",\"American Pale Lager\"\n"
+                        + "\"" + BULK_CSV_ROW + "\",2,\"Bulk Lager\",\"American Pale Lager\"\n").getBytes());
+
+        ResponseEntity responseEntity = beerBulkController.handleBulkCsvPost(file);
+        BeerBulkJobDTO job = awaitCompletion(((BeerBulkJobDTO) responseEntity.getBody()).getJobId());
+
+        assertThat(job.getStatus()).isEqualTo(BeerBulkJobStatus.COMPLETED);
+        assertThat(job.getRowsAccepted()).isEqualTo(1);
+        assertThat(job.getRowsRejected()).isEqualTo(1);
+        assertThat(job.getRejectedRows().get(0).getRow()).isEqualTo(1);
+        assertThat(job.getRejectedRows().get(0).getErrors().get(0)).containsKey("row");
+    }
+
+    private BeerBulkJobDTO awaitCompletion(UUID jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            BeerBulkJobDTO job = beerBulkController.getBulkJobById(jobId);
+
+            if (job.getCompletedDate() != null) {
+                return job;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Bulk job " + jobId + " did not complete");
+    }
+}
@@ -0,0 +1,108 @@
+package guru.springframework.spring6restmvc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.exceptions.ServiceUnavailableException;
+import guru.springframework.spring6restmvc.model.BeerBulkJobDTO;
+import guru.springframework.spring6restmvc.model.BeerBulkJobStatus;
+import guru.springframework.spring6restmvc.services.BeerBulkService;
+import guru.springframework.spring6restmvc.services.BeerServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BeerBulkController.class)
+@DisplayName("Beer Bulk Controller tests")
+class BeerBulkControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    BeerBulkService beerBulkService;
+
+    BeerBulkJobDTO pendingJob = BeerBulkJobDTO.builder()
+            .jobId(UUID.randomUUID())
+            .status(BeerBulkJobStatus.PENDING)
+            .build();
+
+    @Test
+    @DisplayName("Bulk JSON upload is accepted")
+    void bulkJsonUploadIsAccepted() throws Exception {
+        given(beerBulkService.submitBeers(any())).willReturn(pendingJob);
+
+        mockMvc.perform(post(BeerBulkController.BEER_BULK_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BeerServiceImpl()
+                                .getAllBeers(null, null, null, false, 1, 25).getContent())))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", BeerBulkController.BEER_BULK_PATH + "/" + pendingJob.getJobId()))
+                .andExpect(jsonPath("$.status", is(BeerBulkJobStatus.PENDING.name())));
+    }
+
+    @Test
+    @DisplayName("Bulk CSV upload is accepted")
+    void bulkCsvUploadIsAccepted() throws Exception {
+        given(beerBulkService.submitCsv(any())).willReturn(pendingJob);
+
+        MockMultipartFile file = new MockMultipartFile("file", "beers.csv", "text/csv",
+                "\"row\",\"beer\",\"style\"\n\"1\",\"Pub Beer\",\"American Pale Lager\"\n".getBytes());
+
+        mockMvc.perform(multipart(BeerBulkController.BEER_BULK_PATH).file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"));
+    }
+
+    @Test
+    @DisplayName("Bulk upload returns Service Unavailable when the job queue is full")
+    void bulkUploadReturnsServiceUnavailableWhenQueueIsFull() throws Exception {
+        given(beerBulkService.submitCsv(any())).willThrow(new ServiceUnavailableException("Bulk job queue is full"));
+
+        MockMultipartFile file = new MockMultipartFile("file", "beers.csv", "text/csv",
+                "\"row\",\"beer\",\"style\"\n\"1\",\"Pub Beer\",\"American Pale Lager\"\n".getBytes());
+
+        mockMvc.perform(multipart(BeerBulkController.BEER_BULK_PATH).file(file))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("Bulk job is returned by id")
+    void bulkJobIsReturnedById() throws Exception {
+        given(beerBulkService.getJobById(pendingJob.getJobId())).willReturn(Optional.of(pendingJob));
+
+        mockMvc.perform(get(BeerBulkController.BEER_BULK_PATH_ID, pendingJob.getJobId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobId", is(pendingJob.getJobId().toString())));
+    }
+
+    @Test
+    @DisplayName("Unknown bulk job returns Not Found")
+    void unknownBulkJobReturnsNotFound() throws Exception {
+        given(beerBulkService.getJobById(any())).willReturn(Optional.empty());
+
+        mockMvc.perform(get(BeerBulkController.BEER_BULK_PATH_ID, UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+}
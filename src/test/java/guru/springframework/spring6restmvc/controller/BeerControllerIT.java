@@ -4,7 +4,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.spring6restmvc.entities.Beer;
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
 import guru.springframework.spring6restmvc.mappers.BeerMapper;
+import guru.springframework.spring6restmvc.model.BeerBatchResultDTO;
+import guru.springframework.spring6restmvc.model.BeerCursorPageDTO;
 import guru.springframework.spring6restmvc.model.BeerDTO;
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
 import guru.springframework.spring6restmvc.model.BeerStyle;
 import guru.springframework.spring6restmvc.repositories.BeerRepository;
 import org.hamcrest.core.IsNull;
@@ -15,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,7 +29,11 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,6 +43,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.StringStartsWith.startsWithIgnoringCase;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
 
@@ -128,6 +137,156 @@ class BeerControllerIT {
                 .andExpect(jsonPath("$.content.size()", is(336)));
     }
 
+    @Test
+    @DisplayName("Cursor walks every Beer once")
+    void cursorWalksEveryBeerOnce() {
+        Set<UUID> seenIds = new HashSet<>();
+        String cursor = "";
+        BeerCursorPageDTO slice;
+
+        do {
+            slice = beerController.listBeersByCursor(null, null, null, true, cursor, 1000);
+            slice.getContent().forEach(beerDTO -> assertThat(seenIds.add(beerDTO.getId())).isTrue());
+            cursor = slice.getNextCursor();
+        } while (slice.isHasNext());
+
+        assertThat(seenIds.size()).isEqualTo(2413);
+    }
+
+    @Test
+    @DisplayName("Cursor search returns the same Beers as the offset listing for each search mode")
+    void cursorSearchMatchesOffsetListing() {
+        for (BeerSearchMode searchMode : BeerSearchMode.values()) {
+            List<UUID> offsetIds = beerController.listBeers("pub", searchMode, null, true, 1, 1000).getContent()
+                    .stream().map(BeerDTO::getId).toList();
+
+            List<UUID> cursorIds = new ArrayList<>();
+            String cursor = "";
+            BeerCursorPageDTO slice;
+            do {
+                slice = beerController.listBeersByCursor("pub", searchMode, null, true, cursor, 10);
+                slice.getContent().forEach(beerDTO -> cursorIds.add(beerDTO.getId()));
+                cursor = slice.getNextCursor();
+            } while (slice.isHasNext());
+
+            assertThat(cursorIds).isNotEmpty();
+            assertThat(cursorIds).containsExactlyInAnyOrderElementsOf(offsetIds);
+        }
+    }
+
+    @Test
+    void testListBeersByStyleCursor() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerStyle", BeerStyle.IPA.name())
+                        .queryParam("showInventory", "false")
+                        .queryParam("cursor", "")
+                        .queryParam("pageSize", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(50)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.nextCursor").value(IsNull.notNullValue()))
+                .andExpect(jsonPath("$.content[0].quantityOnHand").value(IsNull.nullValue()));
+    }
+
+    @Test
+    void testListBeersByNamePrefix() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "pub")
+                        .queryParam("searchMode", BeerSearchMode.PREFIX.name())
+                        .queryParam("pageSize", "800"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].beerName", startsWithIgnoringCase("pub")));
+    }
+
+    @Test
+    void testListBeersByNamePrefixTreatsWildcardsLiterally() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "p_b")
+                        .queryParam("searchMode", BeerSearchMode.PREFIX.name())
+                        .queryParam("showInventory", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(0)));
+    }
+
+    @Test
+    void testListBeersByNameContainsMatchesLegacyCount() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "ipa")
+                        .queryParam("searchMode", BeerSearchMode.CONTAINS.name())
+                        .queryParam("pageSize", "800"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(336)));
+    }
+
+    @Test
+    void testListBeersByNameFulltextMatchesWordsInAnyOrder() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "beer pub")
+                        .queryParam("searchMode", BeerSearchMode.FULLTEXT.name())
+                        .queryParam("pageSize", "800"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.beerName == 'Pub Beer')]").exists());
+    }
+
+    @Test
+    void testListBeersByNameShorterThanTokenTreatsWildcardsLiterally() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "%")
+                        .queryParam("searchMode", BeerSearchMode.CONTAINS.name())
+                        .queryParam("showInventory", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(0)));
+    }
+
+    @Test
+    void testListBeersByNameFulltextShorterThanTokenMatchesWordsInAnyOrder() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "so it")
+                        .queryParam("searchMode", BeerSearchMode.FULLTEXT.name())
+                        .queryParam("pageSize", "800"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.beerName == 'Make It So')]").exists());
+    }
+
+    @Test
+    void testListBeersByNameWithoutTotal() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "IPA")
+                        .queryParam("includeTotal", "false")
+                        .queryParam("pageSize", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(50)))
+                .andExpect(jsonPath("$.last", is(false)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void testListBeersByNameTotalMatchesCount() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "IPA")
+                        .queryParam("pageSize", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(336)));
+    }
+
+    @Test
+    void testListBeersPastLastPageKeepsTotal() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("beerName", "IPA")
+                        .queryParam("pageNumber", "50")
+                        .queryParam("pageSize", "25"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()", is(0)))
+                .andExpect(jsonPath("$.totalElements", is(336)));
+    }
+
+    @Test
+    void testListBeersInvalidCursor() throws Exception {
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void patchedBeerBadName() throws Exception {
         Beer testBeer = beerRepository.findAll().get(0);
@@ -148,7 +307,7 @@ class BeerControllerIT {
     @Test
     @DisplayName("List of Beers is returned")
     void listOfBeersIsReturned() {
-        Page<BeerDTO> testDtoList = beerController.listBeers(null, null, false, 1, 2413);
+        Page<BeerDTO> testDtoList = beerController.listBeers(null, null, null, false, 1, 2413);
 
         assertThat(testDtoList.getContent().size()).isEqualTo(1000);
     }
@@ -159,7 +318,7 @@ class BeerControllerIT {
     @DisplayName("Empty list of Beers is returned")
     void emptyListOfBeersIsReturned() {
         beerRepository.deleteAll();
-        Page<BeerDTO> testDtoList = beerController.listBeers(null, null, false, 1, 25);
+        Page<BeerDTO> testDtoList = beerController.listBeers(null, null, null, false, 1, 25);
 
         assertThat(testDtoList.getContent().size()).isEqualTo(0);
     }
@@ -168,15 +327,31 @@ class BeerControllerIT {
     @DisplayName("Beer is returned by id")
     void beerIsReturnedById() {
         UUID testId = beerRepository.findAll().get(0).getId();
-        BeerDTO testBeer = beerController.getBeerById(testId);
+        BeerDTO testBeer = beerController.getBeerById(testId, null).getBody();
 
         assertThat(testBeer.getId()).isEqualTo(testId);
     }
 
+    @Test
+    @DisplayName("Beers are returned by ids in request order with missing ids reported")
+    void beersAreReturnedByIdsInRequestOrder() {
+        List<UUID> existingIds = beerRepository.findAll(PageRequest.of(0, 3)).map(Beer::getId).getContent();
+        UUID missingId = UUID.randomUUID();
+        List<UUID> requestedIds = List.of(existingIds.get(2), missingId, existingIds.get(0), existingIds.get(1),
+                existingIds.get(0));
+
+        beerController.getBeerById(existingIds.get(1), null);    // one of them is already cached
+        BeerBatchResultDTO result = beerController.getBeersByIds(requestedIds);
+
+        assertThat(result.getBeers()).extracting(BeerDTO::getId)
+                .containsExactly(existingIds.get(2), existingIds.get(0), existingIds.get(1));
+        assertThat(result.getMissingIds()).containsExactly(missingId);
+    }
+
     @Test
     @DisplayName("Error 404 is thrown if Beer not found by id for returning")
     void error404IsThrownIfBeerNotFoundByIdForReturning() {
-        assertThrows(NotFoundException.class, () -> beerController.getBeerById(UUID.randomUUID()));
+        assertThrows(NotFoundException.class, () -> beerController.getBeerById(UUID.randomUUID(), null));
     }
 
     @Rollback
@@ -210,7 +385,7 @@ class BeerControllerIT {
         final String beerName = "UPDATED";
         beerDTO.setBeerName(beerName);
 
-        ResponseEntity responseEntity = beerController.updateById(beer.getId(), beerDTO);
+        ResponseEntity responseEntity = beerController.updateById(beer.getId(), null, beerDTO);
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatusCode.valueOf(204));
 
         Beer updatedBeer = beerRepository.findById(beer.getId()).get();
@@ -220,7 +395,7 @@ class BeerControllerIT {
     @Test
     @DisplayName("Error 404 is thrown if Beer not found by id for updating")
     void error404IsThrownIfBeerNotFoundByIdForUpdating() {
-        assertThrows(NotFoundException.class, () -> beerController.updateById(UUID.randomUUID(), BeerDTO.builder().build()));
+        assertThrows(NotFoundException.class, () -> beerController.updateById(UUID.randomUUID(), null, BeerDTO.builder().build()));
     }
 
     @Test
@@ -230,7 +405,7 @@ class BeerControllerIT {
         final String beerName = "UPDATED";
         BeerDTO beerDTO = BeerDTO.builder().beerName(beerName).build();
 
-        ResponseEntity responseEntity = beerController.updateBeerPatchById(beer.getId(), beerDTO);
+        ResponseEntity responseEntity = beerController.updateBeerPatchById(beer.getId(), null, beerDTO);
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatusCode.valueOf(204));
 
         Beer updatedBeer = beerRepository.findById(beer.getId()).get();
@@ -241,7 +416,7 @@ class BeerControllerIT {
     @Test
     @DisplayName("Error 404 is thrown if Beer not found by id for patching")
     void error404IsThrownIfBeerNotFoundByIdForPatching() {
-        assertThrows(NotFoundException.class, () -> beerController.updateBeerPatchById(UUID.randomUUID(), BeerDTO.builder().build()));
+        assertThrows(NotFoundException.class, () -> beerController.updateBeerPatchById(UUID.randomUUID(), null, BeerDTO.builder().build()));
     }
 
     @Rollback
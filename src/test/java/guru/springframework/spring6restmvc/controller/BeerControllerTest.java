@@ -1,6 +1,7 @@
 package guru.springframework.spring6restmvc.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.exceptions.PreconditionFailedException;
 import guru.springframework.spring6restmvc.model.BeerDTO;
 import guru.springframework.spring6restmvc.services.BeerService;
 import guru.springframework.spring6restmvc.services.BeerServiceImpl;
@@ -12,18 +13,24 @@ import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -106,7 +113,7 @@ class BeerControllerTest {
     @Test
     @DisplayName("Beer is returned by Id")
     void beerIsReturnedById() throws Exception {
-        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, false, 1, 25).getContent().get(0);
+        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, null, false, 1, 25).getContent().get(0);
 
         given(beerService.getBeerById(testBeer.getId())).willReturn(Optional.of(testBeer));
 
@@ -115,24 +122,94 @@ class BeerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(testBeer.getId().toString())))
-                .andExpect(jsonPath("$.beerName", is(testBeer.getBeerName())));
+                .andExpect(jsonPath("$.beerName", is(testBeer.getBeerName())))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + testBeer.getVersion() + "\""));
+    }
+
+    @Test
+    @DisplayName("Batch get with too many ids returns Bad Request")
+    void batchGetWithTooManyIdsReturnsBadRequest() throws Exception {
+        List<UUID> beerIds = Stream.generate(UUID::randomUUID).limit(BeerController.BATCH_GET_MAX_IDS + 1).toList();
+
+        mockMvc.perform(post(BeerController.BEER_BATCH_GET_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(beerIds)))
+                .andExpect(status().isBadRequest());
+
+        verify(beerService, never()).getBeersByIds(any());
+    }
+
+    @Test
+    @DisplayName("Batch get with a null id returns Bad Request")
+    void batchGetWithNullIdReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(BeerController.BEER_BATCH_GET_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"" + UUID.randomUUID() + "\", null]"))
+                .andExpect(status().isBadRequest());
+
+        verify(beerService, never()).getBeersByIds(any());
+    }
+
+    @Test
+    @DisplayName("Unchanged Beer is answered with Not Modified from its version")
+    void unchangedBeerIsNotModified() throws Exception {
+        UUID beerId = UUID.randomUUID();
+
+        given(beerService.getBeerVersion(beerId)).willReturn(Optional.of(3));
+
+        mockMvc.perform(get(BeerController.BEER_PATH_ID, beerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        verify(beerService, never()).getBeerById(any());
+    }
+
+    @Test
+    @DisplayName("Beer update with a stale If-Match returns Precondition Failed")
+    void beerUpdateWithStaleIfMatchFails() throws Exception {
+        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, null, false, 1, 25).getContent().get(0);
+
+        given(beerService.updateBeerById(any(), any(), eq(1))).willThrow(new PreconditionFailedException());
+
+        mockMvc.perform(put(BeerController.BEER_PATH_ID, testBeer.getId())
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBeer)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(beerService, never()).getBeerVersion(any());    // compared by the service on the row it writes
+    }
+
+    @Test
+    @DisplayName("Beer update with a weak If-Match returns Precondition Failed")
+    void beerUpdateWithWeakIfMatchFails() throws Exception {
+        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, null, false, 1, 25).getContent().get(0);
+
+        mockMvc.perform(put(BeerController.BEER_PATH_ID, testBeer.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(testBeer)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(beerService, never()).updateBeerById(any(), any(), any());
     }
 
     @Test
     @DisplayName("Beer is patched by Id")
     void beerIsPatchedById() throws Exception {
-        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, false, 1, 25).getContent().get(0);
+        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, null, false, 1, 25).getContent().get(0);
 
         Map<String, Object> beerMap = Map.of("beerName", "New Name");
 
-        given(beerService.patchBeerById(any(), any())).willReturn(Optional.of(testBeer));
+        given(beerService.patchBeerById(any(), any(), any())).willReturn(Optional.of(testBeer));
 
         mockMvc.perform(patch(BeerController.BEER_PATH_ID, testBeer.getId())
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(beerMap)))
                 .andExpect(status().isNoContent());
 
-        verify(beerService).patchBeerById(uuidArgumentCaptor.capture(), beerArgumentCaptor.capture());
+        verify(beerService).patchBeerById(uuidArgumentCaptor.capture(), beerArgumentCaptor.capture(), isNull());
 
         assertThat(testBeer.getId()).isEqualTo(uuidArgumentCaptor.getValue());
         assertThat(beerMap.get("beerName")).isEqualTo(beerArgumentCaptor.getValue().getBeerName());
@@ -141,7 +218,7 @@ class BeerControllerTest {
     @Test
     @DisplayName("Beer is deleted by Id")
     void beerIsDeletedById() throws Exception {
-        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, false, 1, 25).getContent().get(0);
+        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, null, false, 1, 25).getContent().get(0);
 
         given(beerService.deleteById(any())).willReturn(true);
 
@@ -157,9 +234,9 @@ class BeerControllerTest {
     @Test
     @DisplayName("Beer is updated by Id")
     void beerIsUpdatedById() throws Exception {
-        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, false, 1, 25).getContent().get(0);
+        BeerDTO testBeer = beerServiceImpl.getAllBeers(null, null, null, false, 1, 25).getContent().get(0);
 
-        given(beerService.updateBeerById(any(), any())).willReturn(Optional.of(testBeer));
+        given(beerService.updateBeerById(any(), any(), any())).willReturn(Optional.of(testBeer));
 
         mockMvc.perform(put(BeerController.BEER_PATH_ID, testBeer.getId())
                         .accept(MediaType.APPLICATION_JSON)
@@ -167,7 +244,7 @@ class BeerControllerTest {
                         .content(objectMapper.writeValueAsString(testBeer)))
                 .andExpect(status().isNoContent());
 
-        verify(beerService).updateBeerById(uuidArgumentCaptor.capture(), any(BeerDTO.class));
+        verify(beerService).updateBeerById(uuidArgumentCaptor.capture(), any(BeerDTO.class), isNull());
 
         assertThat(testBeer.getId()).isEqualTo(uuidArgumentCaptor.getValue());
     }
@@ -175,11 +252,11 @@ class BeerControllerTest {
     @Test
     @DisplayName("New Beer is persisted")
     void newBeerIsPersisted() throws Exception {
-        BeerDTO beerWithoutId = beerServiceImpl.getAllBeers(null, null, false, 1, 25).getContent().get(0);
+        BeerDTO beerWithoutId = beerServiceImpl.getAllBeers(null, null, null, false, 1, 25).getContent().get(0);
         beerWithoutId.setId(null);
         beerWithoutId.setVersion(null);
 
-        BeerDTO beerWithId = beerServiceImpl.getAllBeers(null, null, false, 1, 25).getContent().get(1);
+        BeerDTO beerWithId = beerServiceImpl.getAllBeers(null, null, null, false, 1, 25).getContent().get(1);
 
         given(beerService.saveNewBeer(any(BeerDTO.class))).willReturn(beerWithId);
 
@@ -194,8 +271,8 @@ class BeerControllerTest {
     @Test
     @DisplayName("All Beers are Listed")
     void allBeersAreListed() throws Exception {
-        given(beerService.getAllBeers(any(), any(), any(), any(), any()))
-                .willReturn(beerServiceImpl.getAllBeers(null, null, false, 1, 25));
+        given(beerService.getAllBeers(any(), any(), any(), any(), any(), any()))
+                .willReturn(beerServiceImpl.getAllBeers(null, null, null, false, 1, 25));
 
         mockMvc.perform(get(BeerController.BEER_PATH)
                         .accept(MediaType.APPLICATION_JSON))
@@ -203,6 +280,38 @@ class BeerControllerTest {
                 .andExpect(content().contentType((MediaType.APPLICATION_JSON)))
                 .andExpect(jsonPath("$.content.length()", is(3)));
 
-        verify(beerService, times(1)).getAllBeers(any(), any(), any(), any(), any());
+        verify(beerService, times(1)).getAllBeers(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Beers are Listed without total")
+    void beersAreListedWithoutTotal() throws Exception {
+        given(beerService.getBeerSlice(any(), any(), any(), any(), any(), any()))
+                .willReturn(beerServiceImpl.getBeerSlice(null, null, null, false, 1, 25));
+
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("includeTotal", "false")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(3)));
+
+        verify(beerService, times(1)).getBeerSlice(any(), any(), any(), any(), any(), any());
+        verify(beerService, times(0)).getAllBeers(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Beers are Listed by cursor")
+    void beersAreListedByCursor() throws Exception {
+        given(beerService.getBeersAfter(any(), any(), any(), any(), any(), any()))
+                .willReturn(beerServiceImpl.getBeersAfter(null, null, null, false, null, 25));
+
+        mockMvc.perform(get(BeerController.BEER_PATH)
+                        .queryParam("cursor", "")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()", is(3)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        verify(beerService, times(1)).getBeersAfter(any(), any(), any(), any(), any(), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.services.BeerCsvImportServiceImpl;
+import guru.springframework.spring6restmvc.services.BeerCsvService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@DisplayName("Beer Export Controller Integration tests")
+class BeerExportControllerIT {
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    BeerCsvService beerCsvService;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    @DisplayName("Every Beer is exported as one NDJSON line")
+    void everyBeerIsExportedAsNdjson() throws Exception {
+        List<String> lines = export(null, "NDJSON", MediaType.APPLICATION_NDJSON);
+
+        assertThat(lines).hasSize((int) beerRepository.count());
+        assertThat(lines.get(0)).startsWith("{").contains("\"beerName\"");
+    }
+
+    @Test
+    @DisplayName("Export is filtered by Beer Style as CSV")
+    void exportIsFilteredByStyleAsCsv() throws Exception {
+        List<String> lines = export(BeerStyle.IPA, "CSV", BeerExportController.TEXT_CSV);
+
+        assertThat(lines.get(0)).startsWith("\"row\",\"count.x\"");
+        assertThat(lines).hasSize(beerRepository.findAllByBeerStyle(BeerStyle.IPA, null).getNumberOfElements() + 1);
+        assertThat(lines.subList(1, lines.size())).allMatch(line -> line.contains("\"IPA\""));
+    }
+
+    @Test
+    @DisplayName("CSV export is read back by the CSV import as the same beers")
+    void csvExportRoundTripsThroughImport() throws Exception {
+        List<Beer> exportedBeers = Arrays.stream(BeerStyle.values())
+                .map(beerStyle -> beerRepository.save(Beer.builder()
+                        .beerName("Round Trip " + beerStyle)
+                        .beerStyle(beerStyle)
+                        .upc("ROUND-TRIP-" + beerStyle)
+                        .price(new BigDecimal("7.25"))
+                        .quantityOnHand(beerStyle.ordinal())
+                        .build()))
+                .toList();
+
+        try {
+            List<Beer> importedBeers = new ArrayList<>();
+            beerCsvService.iterateCSV(new StringReader(exportContent(null, "CSV", BeerExportController.TEXT_CSV)))
+                    .forEachRemaining(beerCSVRecord -> importedBeers.add(BeerCsvImportServiceImpl.csvRecordToBeer(beerCSVRecord)));
+
+            assertThat(importedBeers).hasSize((int) beerRepository.count());
+            assertThat(importedBeers)
+                    .usingRecursiveFieldByFieldElementComparatorOnFields("beerName", "beerStyle", "upc", "price", "quantityOnHand")
+                    .containsAll(exportedBeers);
+        } finally {
+            beerRepository.deleteAll(exportedBeers);
+        }
+    }
+
+    private List<String> export(BeerStyle beerStyle, String format, MediaType mediaType) throws Exception {
+        return exportContent(beerStyle, format, mediaType).lines().toList();
+    }
+
+    private String exportContent(BeerStyle beerStyle, String format, MediaType mediaType) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get(BeerExportController.BEER_EXPORT_PATH)
+                        .queryParam("beerStyle", beerStyle != null ? beerStyle.name() : null)
+                        .queryParam("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
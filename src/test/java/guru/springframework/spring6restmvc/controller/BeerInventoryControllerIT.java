@@ -0,0 +1,282 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.exceptions.ConflictException;
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerInventoryAdjustmentDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.services.BeerInventoryAccumulator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@DisplayName("Beer Inventory Controller Integration tests")
+class BeerInventoryControllerIT {
+    private static final int STOCK = 100;
+
+    @Autowired
+    BeerInventoryController beerInventoryController;
+
+    @Autowired
+    BeerInventoryAccumulator beerInventoryAccumulator;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${beer.inventory.stripes}")
+    int stripes;
+
+    TransactionTemplate transactionTemplate;
+
+    Beer testBeer;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        testBeer = beerRepository.save(Beer.builder()
+                .beerName("Inventory Beer")
+                .beerStyle(BeerStyle.LAGER)
+                .upc("INVENTORY-IT")
+                .price(new BigDecimal("4.99"))
+                .quantityOnHand(STOCK)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteById(testBeer.getId());
+    }
+
+    @Test
+    @DisplayName("Concurrent adjustments are all applied without optimistic lock failures")
+    void concurrentAdjustmentsAreAllApplied() throws Exception {
+        runConcurrently(400, i -> beerInventoryController.adjustInventory(testBeer.getId(), false, delta(i % 2 == 0 ? 3 : -1)));
+
+        assertThat(quantityOnHand()).isEqualTo(STOCK + 200 * 3 - 200);
+    }
+
+    @Test
+    @DisplayName("Adjustment below zero stock is rejected and changes nothing")
+    void adjustmentBelowZeroIsRejected() {
+        assertThat(beerInventoryController.adjustInventory(testBeer.getId(), false, delta(-STOCK)).getStatusCode())
+                .isEqualTo(HttpStatusCode.valueOf(204));
+
+        assertThrows(ConflictException.class,
+                () -> beerInventoryController.adjustInventory(testBeer.getId(), false, delta(-1)));
+        assertThat(quantityOnHand()).isZero();
+    }
+
+    @Test
+    @DisplayName("Error 404 is thrown for adjustments of an unknown beer")
+    void error404IsThrownForUnknownBeer() {
+        assertThrows(NotFoundException.class,
+                () -> beerInventoryController.adjustInventory(UUID.randomUUID(), false, delta(1)));
+        assertThrows(NotFoundException.class,
+                () -> beerInventoryController.adjustInventory(UUID.randomUUID(), true, delta(1)));
+    }
+
+    @Test
+    @DisplayName("Restock past the maximum stock is rejected with 409")
+    void restockPastMaximumIsRejected() {
+        Beer fullBeer = saveBeer(Integer.MAX_VALUE - 1);
+
+        try {
+            assertThrows(ConflictException.class,
+                    () -> beerInventoryController.adjustInventory(fullBeer.getId(), false, delta(5)));
+            assertThat(beerRepository.findById(fullBeer.getId()).get().getQuantityOnHand())
+                    .isEqualTo(Integer.MAX_VALUE - 1);
+        } finally {
+            beerRepository.deleteById(fullBeer.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Adjustment changes the version, so ETags of the beer change with its stock")
+    void adjustmentChangesVersion() {
+        beerInventoryController.adjustInventory(testBeer.getId(), false, delta(1));
+
+        assertThat(beerRepository.findById(testBeer.getId()).get().getVersion()).isGreaterThan(testBeer.getVersion());
+    }
+
+    @Test
+    @DisplayName("Coalesced adjustments are summed into far fewer row updates")
+    void coalescedAdjustmentsAreSummed() throws Exception {
+        int adjustments = 2000;
+
+        runConcurrently(adjustments, i -> {
+            assertThat(beerInventoryController.adjustInventory(testBeer.getId(), true, delta(i % 2 == 0 ? 3 : -1))
+                    .getStatusCode()).isEqualTo(HttpStatusCode.valueOf(204));
+        });
+
+        Beer beer = beerRepository.findById(testBeer.getId()).get();
+        assertThat(beer.getQuantityOnHand()).isEqualTo(STOCK + adjustments / 2 * 3 - adjustments / 2);
+        assertThat(beer.getVersion() - testBeer.getVersion()).isLessThan(adjustments);    // one version per flush, not per delta
+    }
+
+    @Test
+    @DisplayName("Coalesced decrements take the stock down to zero and only the rest are rejected")
+    void coalescedDecrementsStopAtZeroStock() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(STOCK * 2, i -> {
+            try {
+                beerInventoryController.adjustInventory(testBeer.getId(), true, delta(-1));
+            } catch (ConflictException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(quantityOnHand()).isZero();
+        assertThat(rejected).hasValue(STOCK);
+    }
+
+    @Test
+    @DisplayName("Coalesced restock past the maximum stock is rejected without holding back other beers")
+    void coalescedRestockPastMaximumIsRejected() {
+        Beer fullBeer = saveBeer(Integer.MAX_VALUE - 1);
+
+        try {
+            CompletableFuture<Void> fullRestock = beerInventoryAccumulator.add(fullBeer.getId(), 5);
+            CompletableFuture<Void> restock = beerInventoryAccumulator.add(testBeer.getId(), 5);
+            beerInventoryAccumulator.flush();
+
+            assertThat(fullRestock).isCompletedExceptionally();
+            assertThat(restock).isCompleted().isNotCompletedExceptionally();
+            assertThat(beerRepository.findById(fullBeer.getId()).get().getQuantityOnHand())
+                    .isEqualTo(Integer.MAX_VALUE - 1);
+            assertThat(quantityOnHand()).isEqualTo(STOCK + 5);
+        } finally {
+            beerRepository.deleteById(fullBeer.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Coalesced adjustment is not held up by a locked beer of another stripe")
+    void coalescedAdjustmentIsNotHeldUpByOtherStripes() throws Exception {
+        Beer otherBeer = saveBeer(STOCK);
+        while (stripeOf(otherBeer) == stripeOf(testBeer)) {
+            beerRepository.deleteById(otherBeer.getId());
+            otherBeer = saveBeer(STOCK);
+        }
+        UUID otherBeerId = otherBeer.getId();
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // another writer holds the lock on the test beer, so its stripe's next flush has to wait for it
+            Future<?> lockHolder = executorService.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                beerRepository.findForUpdateById(testBeer.getId());
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            locked.await();
+            CompletableFuture<Void> blocked = beerInventoryAccumulator.add(testBeer.getId(), 1);
+
+            beerInventoryAccumulator.add(otherBeerId, 1).get(10, TimeUnit.SECONDS);
+            assertThat(blocked).isNotDone();
+
+            release.countDown();
+            lockHolder.get();
+            blocked.get(10, TimeUnit.SECONDS);
+            assertThat(beerRepository.findById(otherBeerId).get().getQuantityOnHand()).isEqualTo(STOCK + 1);
+            assertThat(quantityOnHand()).isEqualTo(STOCK + 1);
+        } finally {
+            release.countDown();
+            executorService.shutdownNow();
+            beerRepository.deleteById(otherBeerId);
+        }
+    }
+
+    @Test
+    @DisplayName("Coalesced decrement is rejected below zero stock")
+    void coalescedDecrementIsCheckedAgainstStock() {
+        assertThat(beerInventoryController.adjustInventory(testBeer.getId(), true, delta(-STOCK)).getStatusCode())
+                .isEqualTo(HttpStatusCode.valueOf(204));
+
+        assertThrows(ConflictException.class,
+                () -> beerInventoryController.adjustInventory(testBeer.getId(), true, delta(-1)));
+        assertThat(quantityOnHand()).isZero();
+    }
+
+    private Beer saveBeer(int quantityOnHand) {
+        return beerRepository.save(Beer.builder()
+                .beerName("Full Inventory Beer")
+                .beerStyle(BeerStyle.LAGER)
+                .upc("INVENTORY-IT")
+                .price(new BigDecimal("4.99"))
+                .quantityOnHand(quantityOnHand)
+                .build());
+    }
+
+    private int stripeOf(Beer beer) {
+        return Math.floorMod(beer.getId().hashCode(), stripes);
+    }
+
+    private Integer quantityOnHand() {
+        return beerRepository.findById(testBeer.getId()).get().getQuantityOnHand();
+    }
+
+    private BeerInventoryAdjustmentDTO delta(int delta) {
+        return BeerInventoryAdjustmentDTO.builder().delta(delta).build();
+    }
+
+    private void runConcurrently(int tasks, IndexedTask task) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private interface IndexedTask {
+        void run(int index);
+    }
+}
@@ -0,0 +1,228 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.StatementCounter;
+import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.exceptions.BadRequestException;
+import guru.springframework.spring6restmvc.exceptions.ConflictException;
+import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineDTO;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@DisplayName("Beer Order Controller Integration tests")
+class BeerOrderControllerIT {
+    private static final String ORDER_UPC = "ORDER-IT";
+    private static final int STOCK = 100;
+
+    @Autowired
+    BeerOrderController beerOrderController;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    UUID customerId;
+    Beer hotBeer;
+    Beer otherHotBeer;
+
+    @BeforeEach
+    void setUp() {
+        customerId = customerRepository.findAll().get(0).getId();
+        hotBeer = saveBeer("Hot Beer");
+        otherHotBeer = saveBeer("Other Hot Beer");
+    }
+
+    @AfterEach
+    void tearDown() {
+        List<UUID> beerIds = List.of(hotBeer.getId(), otherHotBeer.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<UUID> orderIds = entityManager.createQuery(
+                            "select distinct l.beerOrder.id from BeerOrderLine l where l.beer.id in :beerIds", UUID.class)
+                    .setParameter("beerIds", beerIds)
+                    .getResultList();
+            if (!orderIds.isEmpty()) {
+                entityManager.createQuery("update BeerOrder o set o.beerOrderShipment = null where o.id in :ids")
+                        .setParameter("ids", orderIds).executeUpdate();
+                entityManager.createQuery("delete from BeerOrderShipment s where s.beerOrder.id in :ids")
+                        .setParameter("ids", orderIds).executeUpdate();
+                entityManager.createQuery("delete from BeerOrderLine l where l.beerOrder.id in :ids")
+                        .setParameter("ids", orderIds).executeUpdate();
+                entityManager.createQuery("delete from BeerOrder o where o.id in :ids")
+                        .setParameter("ids", orderIds).executeUpdate();
+            }
+        });
+        beerRepository.deleteAllById(beerIds);
+    }
+
+    @Test
+    @DisplayName("Order is allocated against inventory and shipped when every line is allocated")
+    void orderIsAllocatedAndShipped() {
+        ResponseEntity<BeerOrderDTO> responseEntity = beerOrderController.handlePost(order(
+                line(hotBeer.getId(), 30), line(otherHotBeer.getId(), 70)));
+
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatusCode.valueOf(201));
+        BeerOrderDTO beerOrder = beerOrderController.getBeerOrderById(responseEntity.getBody().getId());
+
+        assertThat(beerOrder.getCustomerId()).isEqualTo(customerId);
+        assertThat(beerOrder.getBeerOrderShipmentId()).isNotNull();
+        assertThat(beerOrder.getBeerOrderLines()).extracting(BeerOrderLineDTO::getBeerId)
+                .containsExactly(hotBeer.getId(), otherHotBeer.getId());
+        assertThat(beerOrder.getBeerOrderLines()).extracting(BeerOrderLineDTO::getQuantityAllocated)
+                .containsExactly(30, 70);
+
+        Beer allocatedBeer = beerRepository.findById(hotBeer.getId()).get();
+        assertThat(allocatedBeer.getQuantityOnHand()).isEqualTo(STOCK - 30);
+        assertThat(allocatedBeer.getVersion()).isEqualTo(hotBeer.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("Order with a line over the available stock is rejected without allocating anything")
+    void orderOverStockIsRejected() {
+        assertThrows(ConflictException.class, () -> beerOrderController.handlePost(order(
+                line(hotBeer.getId(), 10), line(otherHotBeer.getId(), STOCK + 1))));
+
+        assertThat(beerRepository.findById(hotBeer.getId()).get().getQuantityOnHand()).isEqualTo(STOCK);
+        assertThat(beerRepository.findById(otherHotBeer.getId()).get().getQuantityOnHand()).isEqualTo(STOCK);
+    }
+
+    @Test
+    @DisplayName("Order locks the beers of all of its lines with one statement")
+    void orderLocksBeersWithOneStatement() {
+        StatementCounter statementCounter = StatementCounter.start(entityManager);
+
+        // rejected before anything is written, so every statement left is a read
+        assertThrows(ConflictException.class, () -> beerOrderController.handlePost(order(
+                line(hotBeer.getId(), 10), line(otherHotBeer.getId(), 10), line(hotBeer.getId(), STOCK))));
+
+        statementCounter.assertStatements(2);    // the customer, then one locking select for the beers of every line
+    }
+
+    @Test
+    @DisplayName("Order for an unknown beer is rejected without allocating anything")
+    void orderForUnknownBeerIsRejected() {
+        assertThrows(BadRequestException.class, () -> beerOrderController.handlePost(order(
+                line(hotBeer.getId(), 10), line(UUID.randomUUID(), 1))));
+
+        assertThat(beerRepository.findById(hotBeer.getId()).get().getQuantityOnHand()).isEqualTo(STOCK);
+    }
+
+    @Test
+    @DisplayName("Error 404 is thrown if Beer Order not found by id")
+    void error404IsThrownIfBeerOrderNotFound() {
+        assertThrows(NotFoundException.class, () -> beerOrderController.getBeerOrderById(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("Concurrent orders on hot beers never oversell and never deadlock")
+    void concurrentOrdersNeverOversell() throws Exception {
+        int threads = 16;
+        int orders = STOCK * 3;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<BeerOrderDTO>> placed = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < orders; i++) {
+                // half of the orders name the beers the other way round - the classic lock order deadlock
+                BeerOrderCreateDTO order = i % 2 == 0
+                        ? order(line(hotBeer.getId(), 1), line(otherHotBeer.getId(), 1))
+                        : order(line(otherHotBeer.getId(), 1), line(hotBeer.getId(), 1));
+                placed.add(executorService.submit(() -> {
+                    start.await();
+                    return beerOrderController.handlePost(order).getBody();
+                }));
+            }
+            start.countDown();
+
+            List<BeerOrderDTO> beerOrders = new ArrayList<>();
+            for (Future<BeerOrderDTO> future : placed) {
+                try {
+                    beerOrders.add(future.get());
+                } catch (ExecutionException e) {
+                    // out of stock is the only expected failure, any lost lock or deadlock surfaces here
+                    assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+                }
+            }
+
+            assertThat(allocated(beerOrders, hotBeer.getId())).isEqualTo(STOCK);
+            assertThat(allocated(beerOrders, otherHotBeer.getId())).isEqualTo(STOCK);
+            assertThat(beerRepository.findById(hotBeer.getId()).get().getQuantityOnHand()).isZero();
+            assertThat(beerRepository.findById(otherHotBeer.getId()).get().getQuantityOnHand()).isZero();
+            assertThat(beerOrders).hasSize(STOCK)
+                    .allSatisfy(beerOrder -> assertThat(beerOrder.getBeerOrderShipmentId()).isNotNull());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private int allocated(List<BeerOrderDTO> beerOrders, UUID beerId) {
+        return beerOrders.stream()
+                .flatMap(beerOrder -> beerOrder.getBeerOrderLines().stream())
+                .filter(line -> line.getBeerId().equals(beerId))
+                .mapToInt(BeerOrderLineDTO::getQuantityAllocated)
+                .sum();
+    }
+
+    private Beer saveBeer(String beerName) {
+        return beerRepository.save(Beer.builder()
+                .beerName(beerName)
+                .beerStyle(BeerStyle.IPA)
+                .upc(ORDER_UPC)
+                .price(new BigDecimal("5.99"))
+                .quantityOnHand(STOCK)
+                .build());
+    }
+
+    private BeerOrderCreateDTO order(BeerOrderLineCreateDTO... lines) {
+        return BeerOrderCreateDTO.builder()
+                .customerId(customerId)
+                .customerRef("Order IT")
+                .beerOrderLines(List.of(lines))
+                .build();
+    }
+
+    private BeerOrderLineCreateDTO line(UUID beerId, int orderQuantity) {
+        return BeerOrderLineCreateDTO.builder()
+                .beerId(beerId)
+                .orderQuantity(orderQuantity)
+                .build();
+    }
+}
@@ -0,0 +1,85 @@
+package guru.springframework.spring6restmvc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.model.BeerOrderCreateDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderDTO;
+import guru.springframework.spring6restmvc.model.BeerOrderLineCreateDTO;
+import guru.springframework.spring6restmvc.services.BeerOrderService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BeerOrderController.class)
+@DisplayName("Beer Order Controller tests")
+class BeerOrderControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    BeerOrderService beerOrderService;
+
+    @Test
+    @DisplayName("New Beer Order is placed")
+    void newBeerOrderIsPlaced() throws Exception {
+        BeerOrderDTO placedOrder = BeerOrderDTO.builder().id(UUID.randomUUID()).build();
+        given(beerOrderService.placeOrder(any(BeerOrderCreateDTO.class))).willReturn(placedOrder);
+
+        mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BeerOrderCreateDTO.builder()
+                                .customerId(UUID.randomUUID())
+                                .beerOrderLines(List.of(BeerOrderLineCreateDTO.builder()
+                                        .beerId(UUID.randomUUID())
+                                        .orderQuantity(2)
+                                        .build()))
+                                .build())))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", BeerOrderController.BEER_ORDER_PATH + "/" + placedOrder.getId()));
+    }
+
+    @Test
+    @DisplayName("Beer Order without lines returns Bad Request")
+    void beerOrderWithoutLinesReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(BeerOrderCreateDTO.builder()
+                                .customerId(UUID.randomUUID())
+                                .beerOrderLines(List.of())
+                                .build())))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(beerOrderService);
+    }
+
+    @Test
+    @DisplayName("Beer Order with a null line returns Bad Request")
+    void beerOrderWithNullLineReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(BeerOrderController.BEER_ORDER_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\":\"" + UUID.randomUUID() + "\",\"beerOrderLines\":[null]}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(beerOrderService);
+    }
+}
@@ -0,0 +1,121 @@
+package guru.springframework.spring6restmvc.controller;
+
+import guru.springframework.spring6restmvc.entities.BeerOrder;
+import guru.springframework.spring6restmvc.entities.Customer;
+import guru.springframework.spring6restmvc.model.CustomerBatchAction;
+import guru.springframework.spring6restmvc.model.CustomerBatchItemResult;
+import guru.springframework.spring6restmvc.model.CustomerBatchItemStatus;
+import guru.springframework.spring6restmvc.model.CustomerBatchOperation;
+import guru.springframework.spring6restmvc.model.CustomerDTO;
+import guru.springframework.spring6restmvc.repositories.BeerOrderRepository;
+import guru.springframework.spring6restmvc.repositories.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DisplayName("Customer Batch Controller Integration tests")
+class CustomerBatchControllerIT {
+    private static final String BATCH_PREFIX = "Batch IT ";
+
+    @Autowired
+    CustomerBatchController customerBatchController;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    BeerOrderRepository beerOrderRepository;
+
+    @AfterEach
+    void tearDown() {
+        List<Customer> customers = customerRepository.findAll().stream()
+                .filter(customer -> customer.getName().startsWith(BATCH_PREFIX))
+                .toList();
+        List<UUID> customerIds = customers.stream().map(Customer::getId).toList();
+
+        beerOrderRepository.deleteAll(beerOrderRepository.findAll().stream()
+                .filter(beerOrder -> beerOrder.getCustomer() != null
+                        && customerIds.contains(beerOrder.getCustomer().getId()))
+                .toList());
+        customerRepository.deleteAll(customers);
+    }
+
+    @Test
+    @DisplayName("Every operation of a batch gets its own result in request order")
+    void everyOperationGetsItsOwnResult() {
+        Customer toUpdate = saveCustomer("Update");
+        Customer toPatch = saveCustomer("Patch");
+        Customer toDelete = saveCustomer("Delete");
+        Customer stale = saveCustomer("Stale");
+
+        List<CustomerBatchItemResult> results = customerBatchController.handleBatch(List.of(
+                operation(CustomerBatchAction.CREATE, null, BATCH_PREFIX + "Created"),
+                operation(CustomerBatchAction.UPDATE, toUpdate.getId(), BATCH_PREFIX + "Updated"),
+                operation(CustomerBatchAction.PATCH, toPatch.getId(), BATCH_PREFIX + "Patched"),
+                operation(CustomerBatchAction.DELETE, toDelete.getId(), null),
+                operation(CustomerBatchAction.UPDATE, UUID.randomUUID(), BATCH_PREFIX + "Missing"),
+                operation(CustomerBatchAction.CREATE, null, ""),
+                CustomerBatchOperation.builder()
+                        .action(CustomerBatchAction.UPDATE)
+                        .customerId(stale.getId())
+                        .version(stale.getVersion() + 1)
+                        .customer(CustomerDTO.builder().name(BATCH_PREFIX + "Not Applied").build())
+                        .build()));
+
+        assertThat(results).extracting(CustomerBatchItemResult::getIndex).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(results).extracting(CustomerBatchItemResult::getStatus).containsExactly(
+                CustomerBatchItemStatus.CREATED,
+                CustomerBatchItemStatus.UPDATED,
+                CustomerBatchItemStatus.UPDATED,
+                CustomerBatchItemStatus.DELETED,
+                CustomerBatchItemStatus.NOT_FOUND,
+                CustomerBatchItemStatus.INVALID,
+                CustomerBatchItemStatus.PRECONDITION_FAILED);
+
+        assertThat(customerRepository.findById(results.get(0).getCustomerId())).isPresent();
+        assertThat(customerRepository.findById(toUpdate.getId()).get().getName()).isEqualTo(BATCH_PREFIX + "Updated");
+        assertThat(results.get(1).getVersion()).isEqualTo(toUpdate.getVersion() + 1);
+        assertThat(customerRepository.findById(toPatch.getId()).get().getName()).isEqualTo(BATCH_PREFIX + "Patched");
+        assertThat(customerRepository.existsById(toDelete.getId())).isFalse();
+        assertThat(customerRepository.findById(stale.getId()).get().getName()).isEqualTo(BATCH_PREFIX + "Stale");
+    }
+
+    @Test
+    @DisplayName("A row failing in the database does not roll back the rest of its chunk")
+    void failingRowDoesNotRollBackItsChunk() {
+        Customer withOrder = saveCustomer("With Order");
+        BeerOrder beerOrder = new BeerOrder();
+        beerOrder.setCustomer(withOrder);
+        beerOrderRepository.save(beerOrder);
+        Customer toUpdate = saveCustomer("Update");
+
+        List<CustomerBatchItemResult> results = customerBatchController.handleBatch(List.of(
+                operation(CustomerBatchAction.DELETE, withOrder.getId(), null),
+                operation(CustomerBatchAction.UPDATE, toUpdate.getId(), BATCH_PREFIX + "Updated")));
+
+        assertThat(results).extracting(CustomerBatchItemResult::getStatus)
+                .containsExactly(CustomerBatchItemStatus.CONFLICT, CustomerBatchItemStatus.UPDATED);
+        assertThat(customerRepository.existsById(withOrder.getId())).isTrue();
+        assertThat(customerRepository.findById(toUpdate.getId()).get().getName()).isEqualTo(BATCH_PREFIX + "Updated");
+    }
+
+    private Customer saveCustomer(String name) {
+        return customerRepository.save(Customer.builder().name(BATCH_PREFIX + name).build());
+    }
+
+    private CustomerBatchOperation operation(CustomerBatchAction action, UUID customerId, String name) {
+        return CustomerBatchOperation.builder()
+                .action(action)
+                .customerId(customerId)
+                .customer(name == null ? null : CustomerDTO.builder().name(name).build())
+                .build();
+    }
+}
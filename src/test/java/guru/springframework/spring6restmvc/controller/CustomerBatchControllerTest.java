@@ -0,0 +1,93 @@
+package guru.springframework.spring6restmvc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.spring6restmvc.model.CustomerBatchAction;
+import guru.springframework.spring6restmvc.model.CustomerBatchItemResult;
+import guru.springframework.spring6restmvc.model.CustomerBatchItemStatus;
+import guru.springframework.spring6restmvc.model.CustomerBatchOperation;
+import guru.springframework.spring6restmvc.services.CustomerBatchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CustomerBatchController.class)
+@DisplayName("Customer Batch Controller tests")
+class CustomerBatchControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    CustomerBatchService customerBatchService;
+
+    @Test
+    @DisplayName("Batch returns one result per operation")
+    void batchReturnsOneResultPerOperation() throws Exception {
+        UUID customerId = UUID.randomUUID();
+        given(customerBatchService.applyOperations(any())).willReturn(List.of(CustomerBatchItemResult.builder()
+                .index(0)
+                .status(CustomerBatchItemStatus.DELETED)
+                .customerId(customerId)
+                .build()));
+
+        mockMvc.perform(post(CustomerBatchController.CUSTOMER_BATCH_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(CustomerBatchOperation.builder()
+                                .action(CustomerBatchAction.DELETE)
+                                .customerId(customerId)
+                                .build()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(CustomerBatchItemStatus.DELETED.name())))
+                .andExpect(jsonPath("$[0].customerId", is(customerId.toString())));
+    }
+
+    @Test
+    @DisplayName("Batch with too many operations returns Bad Request")
+    void batchWithTooManyOperationsReturnsBadRequest() throws Exception {
+        CustomerBatchOperation operation = CustomerBatchOperation.builder()
+                .action(CustomerBatchAction.DELETE)
+                .customerId(UUID.randomUUID())
+                .build();
+
+        mockMvc.perform(post(CustomerBatchController.CUSTOMER_BATCH_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Collections.nCopies(CustomerBatchController.BATCH_MAX_OPERATIONS + 1, operation))))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(customerBatchService);
+    }
+
+    @Test
+    @DisplayName("Batch with a null operation returns Bad Request")
+    void batchWithNullOperationReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(CustomerBatchController.CUSTOMER_BATCH_PATH)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(customerBatchService);
+    }
+}
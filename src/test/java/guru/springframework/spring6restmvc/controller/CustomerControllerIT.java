@@ -2,6 +2,7 @@ package guru.springframework.spring6restmvc.controller;
 
 import guru.springframework.spring6restmvc.entities.Customer;
 import guru.springframework.spring6restmvc.exceptions.NotFoundException;
+import guru.springframework.spring6restmvc.exceptions.PreconditionFailedException;
 import guru.springframework.spring6restmvc.mappers.CustomerMapper;
 import guru.springframework.spring6restmvc.model.CustomerDTO;
 import guru.springframework.spring6restmvc.repositories.CustomerRepository;
@@ -9,12 +10,15 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -35,9 +39,9 @@ class CustomerControllerIT {
     @Test
     @DisplayName("List of Customers is returned")
     void listOfCustomersIsReturned() {
-        List<CustomerDTO> testDtoList = customerController.listAllCustomers();
+        Page<CustomerDTO> testDtoPage = customerController.listAllCustomers(1, 25);
 
-        assertThat(testDtoList.size()).isEqualTo(3);
+        assertThat(testDtoPage.getContent().size()).isEqualTo(3);
     }
 
     @Rollback
@@ -46,16 +50,26 @@ class CustomerControllerIT {
     @DisplayName("Empty list of Customers is returned")
     void emptyListOfCustomersIsReturned() {
         customerRepository.deleteAll();
-        List<CustomerDTO> testDtoList = customerController.listAllCustomers();
+        Page<CustomerDTO> testDtoPage = customerController.listAllCustomers(1, 25);
 
-        assertThat(testDtoList.size()).isEqualTo(0);
+        assertThat(testDtoPage.getContent().size()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("All Customers are streamed one per line")
+    void allCustomersAreStreamed() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        customerController.streamAllCustomers().getBody().writeTo(outputStream);
+
+        assertThat(outputStream.toString(StandardCharsets.UTF_8).lines().count()).isEqualTo(3);
     }
 
     @Test
     @DisplayName("Customer is returned by id")
     void customerIsReturnedById() {
         UUID testId = customerRepository.findAll().get(0).getId();
-        CustomerDTO testCustomer = customerController.getCustomerById(testId);
+        CustomerDTO testCustomer = customerController.getCustomerById(testId, null).getBody();
 
         assertThat(testCustomer.getId()).isEqualTo(testId);
     }
@@ -63,7 +77,7 @@ class CustomerControllerIT {
     @Test
     @DisplayName("Error 404 is thrown if Customer not found by id for returning")
     void error404IsThrownIfCustomerNotFoundByIdForReturning() {
-        assertThrows(NotFoundException.class, () -> customerController.getCustomerById(UUID.randomUUID()));
+        assertThrows(NotFoundException.class, () -> customerController.getCustomerById(UUID.randomUUID(), null));
     }
 
     @Rollback
@@ -97,7 +111,7 @@ class CustomerControllerIT {
         final String customerName = "UPDATED";
         customerDTO.setName(customerName);
 
-        ResponseEntity responseEntity = customerController.updateCustomerById(customer.getId(), customerDTO);
+        ResponseEntity responseEntity = customerController.updateCustomerById(customer.getId(), null, customerDTO);
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatusCode.valueOf(204));
 
         Customer updatedCustomer = customerRepository.findById(customer.getId()).get();
@@ -108,7 +122,27 @@ class CustomerControllerIT {
     @DisplayName("Error 404 is thrown if Customer not found by id for updating")
     void error404IsThrownIfCustomerNotFoundByIdForUpdating() {
         assertThrows(NotFoundException.class,
-                () -> customerController.updateCustomerById(UUID.randomUUID(), CustomerDTO.builder().build()));
+                () -> customerController.updateCustomerById(UUID.randomUUID(), null, CustomerDTO.builder().build()));
+    }
+
+    @Test
+    @DisplayName("Update against a version that changed since it was read returns Precondition Failed")
+    void updateAgainstChangedVersionFails() {
+        Customer customer = customerRepository.save(Customer.builder().name("If-Match Customer").build());
+        String seenVersion = "\"" + customer.getVersion() + "\"";
+
+        try {
+            customerController.updateCustomerById(customer.getId(), seenVersion,
+                    CustomerDTO.builder().name("First Writer").build());
+
+            assertThrows(PreconditionFailedException.class, () -> customerController.updateCustomerById(
+                    customer.getId(), seenVersion, CustomerDTO.builder().name("Second Writer").build()));
+            assertThrows(PreconditionFailedException.class, () -> customerController.updateCustomerPatchById(
+                    customer.getId(), seenVersion, CustomerDTO.builder().name("Second Writer").build()));
+            assertThat(customerRepository.findById(customer.getId()).get().getName()).isEqualTo("First Writer");
+        } finally {
+            customerRepository.deleteById(customer.getId());
+        }
     }
 
     @Rollback
@@ -120,7 +154,7 @@ class CustomerControllerIT {
         final String customerName = "UPDATED";
         CustomerDTO customerDTO = CustomerDTO.builder().name(customerName).build();
 
-        ResponseEntity responseEntity = customerController.updateCustomerPatchById(customer.getId(), customerDTO);
+        ResponseEntity responseEntity = customerController.updateCustomerPatchById(customer.getId(), null, customerDTO);
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatusCode.valueOf(204));
 
         Customer updatedCustomer = customerRepository.findById(customer.getId()).get();
@@ -130,7 +164,7 @@ class CustomerControllerIT {
     @Test
     @DisplayName("Error 404 is thrown if Customer not found by id for patching")
     void error404IsThrownIfCustomerNotFoundByIdForPatching() {
-        assertThrows(NotFoundException.class, () -> customerController.updateCustomerPatchById(UUID.randomUUID(),
+        assertThrows(NotFoundException.class, () -> customerController.updateCustomerPatchById(UUID.randomUUID(), null,
                 CustomerDTO.builder().build()));
     }
 
@@ -12,6 +12,7 @@ import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -19,13 +20,18 @@ import org.springframework.test.web.servlet.MvcResult;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
@@ -34,6 +40,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CustomerController.class)
@@ -97,9 +104,9 @@ class CustomerControllerTest {
     @Test
     @DisplayName("Customer is patched by Id")
     void customerIsPatchedById() throws Exception {
-        CustomerDTO testCustomer = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO testCustomer = customerServiceImpl.getAllCustomers(1, 25).getContent().get(0);
 
-        given(customerService.patchCustomerById(any(), any())).willReturn(Optional.of(testCustomer));
+        given(customerService.patchCustomerById(any(), any(), any())).willReturn(Optional.of(testCustomer));
 
         Map<String, Object> customerMap = Map.of("name", "New Name");
 
@@ -108,7 +115,7 @@ class CustomerControllerTest {
                         .content(objectMapper.writeValueAsString(customerMap)))
                 .andExpect(status().isNoContent());
 
-        verify(customerService).patchCustomerById(uuidArgumentCaptor.capture(), customerArgumentCaptor.capture());
+        verify(customerService).patchCustomerById(uuidArgumentCaptor.capture(), customerArgumentCaptor.capture(), isNull());
 
         assertThat(testCustomer.getId()).isEqualTo(uuidArgumentCaptor.getValue());
         assertThat(customerMap.get("name")).isEqualTo(customerArgumentCaptor.getValue().getName());
@@ -117,7 +124,7 @@ class CustomerControllerTest {
     @Test
     @DisplayName("Customer is deleted by Id")
     void customerIsDeletedById() throws Exception {
-        CustomerDTO testCustomer = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO testCustomer = customerServiceImpl.getAllCustomers(1, 25).getContent().get(0);
 
         given(customerService.deleteById(any())).willReturn(true);
 
@@ -133,9 +140,9 @@ class CustomerControllerTest {
     @Test
     @DisplayName("Customer is updated by Id")
     void customerIsUpdatedById() throws Exception {
-        CustomerDTO testCustomer = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO testCustomer = customerServiceImpl.getAllCustomers(1, 25).getContent().get(0);
 
-        given(customerService.updateCustomerById(any(), any())).willReturn(Optional.of(testCustomer));
+        given(customerService.updateCustomerById(any(), any(), any())).willReturn(Optional.of(testCustomer));
 
         mockMvc.perform(put(CustomerController.CUSTOMER_PATH_ID, testCustomer.getId())
                         .accept(MediaType.APPLICATION_JSON)
@@ -143,7 +150,7 @@ class CustomerControllerTest {
                         .content(objectMapper.writeValueAsString(testCustomer)))
                 .andExpect(status().isNoContent());
 
-        verify(customerService).updateCustomerById(uuidArgumentCaptor.capture(), any(CustomerDTO.class));
+        verify(customerService).updateCustomerById(uuidArgumentCaptor.capture(), any(CustomerDTO.class), isNull());
 
         assertThat(testCustomer.getId()).isEqualTo(uuidArgumentCaptor.getValue());
     }
@@ -151,11 +158,11 @@ class CustomerControllerTest {
     @Test
     @DisplayName("New Customer is persisted")
     void newCustomerIsPersisted() throws Exception {
-        CustomerDTO customerWithoutId = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO customerWithoutId = customerServiceImpl.getAllCustomers(1, 25).getContent().get(0);
         customerWithoutId.setId(null);
         customerWithoutId.setVersion(null);
 
-        CustomerDTO customerWithId = customerServiceImpl.getAllCustomers().get(1);
+        CustomerDTO customerWithId = customerServiceImpl.getAllCustomers(1, 25).getContent().get(1);
 
         given(customerService.saveNewCustomer(any(CustomerDTO.class))).willReturn(customerWithId);
 
@@ -179,7 +186,7 @@ class CustomerControllerTest {
     @Test
     @DisplayName("Customer is returned by Id")
     void customerIsReturnedById() throws Exception {
-        CustomerDTO testCustomer = customerServiceImpl.getAllCustomers().get(0);
+        CustomerDTO testCustomer = customerServiceImpl.getAllCustomers(1, 25).getContent().get(0);
 
         given(customerService.getCustomerById(testCustomer.getId())).willReturn(Optional.of(testCustomer));
 
@@ -188,20 +195,59 @@ class CustomerControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(testCustomer.getId().toString())))
-                .andExpect(jsonPath("$.name", is(testCustomer.getName())));
+                .andExpect(jsonPath("$.name", is(testCustomer.getName())))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + testCustomer.getVersion() + "\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    @DisplayName("Unchanged Customer is answered with Not Modified from its version")
+    void unchangedCustomerIsNotModified() throws Exception {
+        UUID customerId = UUID.randomUUID();
+
+        given(customerService.getCustomerVersion(customerId)).willReturn(Optional.of(1));
+
+        mockMvc.perform(get(CustomerController.CUSTOMER_PATH_ID, customerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"1\""))
+                .andExpect(status().isNotModified());
+
+        verify(customerService, never()).getCustomerById(any());
     }
 
     @Test
     @DisplayName("All Customers are Listed")
     void allCustomersAreListed() throws Exception {
-        given(customerService.getAllCustomers()).willReturn(customerServiceImpl.getAllCustomers());
+        given(customerService.getAllCustomers(any(), any())).willReturn(customerServiceImpl.getAllCustomers(1, 25));
 
         mockMvc.perform(get(CustomerController.CUSTOMER_PATH)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("length()", is(3)));
+                .andExpect(jsonPath("$.content.length()", is(3)));
+
+        verify(customerService, times(1)).getAllCustomers(any(), any());
+    }
+
+    @Test
+    @DisplayName("All Customers are streamed as NDJSON")
+    void allCustomersAreStreamedAsNdjson() throws Exception {
+        willAnswer(invocation -> {
+            Consumer<CustomerDTO> consumer = invocation.getArgument(0);
+            customerServiceImpl.getAllCustomers(1, 25).forEach(consumer);
+            return null;
+        }).given(customerService).streamAllCustomers(any());
+
+        MvcResult mvcResult = mockMvc.perform(get(CustomerController.CUSTOMER_PATH)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
 
-        verify(customerService, times(1)).getAllCustomers();
+        assertThat(body.lines().count()).isEqualTo(3);
+        verify(customerService, never()).getAllCustomers(any(), any());
     }
 }
\ No newline at end of file
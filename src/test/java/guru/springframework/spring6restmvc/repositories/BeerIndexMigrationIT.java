@@ -0,0 +1,86 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// BeerIndexTest checks the plans on the schema generated from the entities - this checks that the shipped migrations
+// create the same indexes. MySQL only, so it is skipped unless run against the localmysql profile:
+// mvn verify -Dspring.profiles.active=localmysql -Dit.test=BeerIndexMigrationIT
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfSystemProperty(named = "spring.profiles.active", matches = ".*localmysql.*")
+@DisplayName("Beer index migration tests")
+class BeerIndexMigrationIT {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    @DisplayName("Every index declared on the entities is created by the migrations")
+    void everyEntityIndexIsMigrated() {
+        List<String> migratedIndexes = jdbcTemplate.queryForList("select concat(lower(table_name), '(', " +
+                "group_concat(lower(column_name) order by seq_in_index separator ', '), ')') " +
+                "from information_schema.statistics where table_schema = database() group by table_name, index_name",
+                String.class);
+
+        // a declared index may be covered by a migrated one of another name, e.g. the beer_name_token primary key
+        assertThat(migratedIndexes).containsAll(declaredIndexes());
+    }
+
+    // table(columns) of every @Index on the entities and their collection and join tables
+    private List<String> declaredIndexes() {
+        List<String> declaredIndexes = new ArrayList<>();
+        for (EntityType<?> entity : entityManager.getMetamodel().getEntities()) {
+            Class<?> entityClass = entity.getJavaType();
+            Table table = entityClass.getAnnotation(Table.class);
+            if (table != null) {
+                addIndexes(declaredIndexes, toColumnName(entityClass.getSimpleName()), table.indexes());
+            }
+            for (Field field : entityClass.getDeclaredFields()) {
+                CollectionTable collectionTable = field.getAnnotation(CollectionTable.class);
+                if (collectionTable != null) {
+                    addIndexes(declaredIndexes, collectionTable.name(), collectionTable.indexes());
+                }
+                JoinTable joinTable = field.getAnnotation(JoinTable.class);
+                if (joinTable != null) {
+                    addIndexes(declaredIndexes, joinTable.name(), joinTable.indexes());
+                }
+            }
+        }
+        return declaredIndexes;
+    }
+
+    private void addIndexes(List<String> declaredIndexes, String table, Index[] indexes) {
+        for (Index index : indexes) {
+            declaredIndexes.add(table + "(" + Arrays.stream(index.columnList().split(","))
+                    .map(column -> toColumnName(column.trim()))
+                    .collect(Collectors.joining(", ")) + ")");
+        }
+    }
+
+    private String toColumnName(String name) {    // the default physical naming - camel case to snake case
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    }
+}
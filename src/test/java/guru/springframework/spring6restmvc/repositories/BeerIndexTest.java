@@ -0,0 +1,67 @@
+package guru.springframework.spring6restmvc.repositories;
+
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:beerindexdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE")
+@DisplayName("Beer index usage tests")
+class BeerIndexTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Listing by style uses the style, name, id index")
+    void listingByStyleUsesStyleNameIdIndex() {
+        String plan = explain("select * from beer where beer_style = " + BeerStyle.IPA.ordinal()
+                + " order by beer_name, id limit 25");
+
+        assertThat(plan).containsIgnoringCase("beer_style_name_id_idx");
+    }
+
+    @Test
+    @DisplayName("Keyset page seeks on the name, id index")
+    void keysetPageSeeksOnNameIdIndex() {
+        String plan = explain("select * from beer where beer_name > 'M' order by beer_name, id limit 25");
+
+        assertThat(plan).containsIgnoringCase("beer_name_id_idx");
+    }
+
+    @Test
+    @DisplayName("Prefix search uses the search name index")
+    void prefixSearchUsesSearchNameIndex() {
+        String plan = explain("select * from beer where search_name like 'pub%'");
+
+        assertThat(plan).containsIgnoringCase("beer_search_name_idx");
+    }
+
+    @Test
+    @DisplayName("Name token search starts from the token index")
+    void nameTokenSearchUsesTokenIndex() {
+        String plan = explain("select * from beer_name_token where token = 'pub'");
+
+        assertThat(plan).containsIgnoringCase("bnt_token_beer_id_idx");
+    }
+
+    @Test
+    @DisplayName("Order lines are looked up by beer through an index")
+    void orderLinesAreLookedUpByBeerThroughIndex() {
+        String plan = explain("select * from beer_order_line where beer_id = '00000000-0000-0000-0000-000000000000'");
+
+        assertThat(plan).containsIgnoringCase("bol_beer_id_idx");
+    }
+
+    private String explain(String sql) {    // a failing assertion prints the whole plan
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
@@ -1,15 +1,24 @@
 package guru.springframework.spring6restmvc.repositories;
 
+import guru.springframework.spring6restmvc.StatementCounter;
 import guru.springframework.spring6restmvc.entities.Beer;
 import guru.springframework.spring6restmvc.entities.BeerOrder;
+import guru.springframework.spring6restmvc.entities.BeerOrderLine;
 import guru.springframework.spring6restmvc.entities.BeerOrderShipment;
 import guru.springframework.spring6restmvc.entities.Customer;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
@@ -23,6 +32,9 @@ class BeerOrderRepositoryTest {
     @Autowired
     BeerRepository beerRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
     Customer testCustomer;
     Beer testBeer;
 
@@ -52,4 +64,55 @@ class BeerOrderRepositoryTest {
         assertThat(beerOrder.getBeerOrderShipment().getTrackingNumber())
                 .isEqualTo(savedBeerOrder.getBeerOrderShipment().getTrackingNumber());
     }
-}
\ No newline at end of file
+
+    @Transactional
+    @Test
+    @DisplayName("Order with its lines and beers is loaded in one statement")
+    void testFindWithLinesAndBeersInOneStatement() {
+        UUID beerOrderId = saveOrderWithLines();
+        StatementCounter statements = StatementCounter.start(entityManager);
+
+        BeerOrder beerOrder = beerOrderRepository.findWithLinesAndBeersById(beerOrderId).orElseThrow();
+        beerOrder.getBeerOrderLines().forEach(line -> assertThat(line.getBeer().getBeerName()).isNotNull());
+
+        assertThat(beerOrder.getBeerOrderLines()).hasSize(3);
+        statements.assertStatements(1);
+    }
+
+    @Transactional
+    @Test
+    @DisplayName("Lazy lines and beers of an order are loaded in batches instead of one by one")
+    void testLazyLinesAndBeersAreBatchFetched() {
+        UUID beerOrderId = saveOrderWithLines();
+        StatementCounter statements = StatementCounter.start(entityManager);
+
+        BeerOrder beerOrder = beerOrderRepository.findById(beerOrderId).orElseThrow();
+        statements.assertStatements(1);    // customer and shipment stay lazy proxies
+
+        beerOrder.getBeerOrderLines().forEach(line -> assertThat(line.getBeer().getBeerName()).isNotNull());
+        statements.assertStatements(3);    // one for the lines, one batch for all of their beers
+    }
+
+    private UUID saveOrderWithLines() {
+        BeerOrder beerOrder = BeerOrder.builder()
+                .customerRef("Graph order")
+                .customer(testCustomer)
+                .beerOrderLines(new LinkedHashSet<>())
+                .build();
+        List<Beer> beers = beerRepository.findAll(PageRequest.of(0, 3)).getContent();
+        beers.forEach(beer -> beerOrder.getBeerOrderLines().add(BeerOrderLine.builder()
+                .beer(beer)
+                .beerOrder(beerOrder)
+                .orderQuantity(1)
+                .quantityAllocated(0)
+                .build()));
+
+        beerOrderRepository.save(beerOrder);
+        beerOrder.getBeerOrderLines().forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();    // counts must not depend on what earlier tests cached
+
+        return beerOrder.getId();
+    }
+}
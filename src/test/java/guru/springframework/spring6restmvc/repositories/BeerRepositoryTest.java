@@ -2,15 +2,29 @@ package guru.springframework.spring6restmvc.repositories;
 
 import guru.springframework.spring6restmvc.bootstrap.BootsStrapData;
 import guru.springframework.spring6restmvc.entities.Beer;
+import guru.springframework.spring6restmvc.entities.BeerNameTokens;
 import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.services.BeerBatchWriter;
+import guru.springframework.spring6restmvc.services.BeerCountCache;
+import guru.springframework.spring6restmvc.services.BeerDtoCache;
+import guru.springframework.spring6restmvc.services.BeerImportMetrics;
+import guru.springframework.spring6restmvc.services.BeerCursor;
+import guru.springframework.spring6restmvc.services.BeerCsvImportServiceImpl;
 import guru.springframework.spring6restmvc.services.BeerCsvServiceImpl;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.ConstraintViolationException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 
@@ -18,13 +32,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
-@Import({BootsStrapData.class, BeerCsvServiceImpl.class})
+@Import({BootsStrapData.class, BeerCsvServiceImpl.class, BeerCsvImportServiceImpl.class, BeerBatchWriter.class,
+        BeerCountCache.class, BeerDtoCache.class, BeerImportMetrics.class})
 @DisplayName("Beer Repository Tests")
 class BeerRepositoryTest {
 
     @Autowired
     BeerRepository beerRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
     @Test
     void testBetBeerListByNameAndStyle() {
         Page<Beer> list = beerRepository.findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle(
@@ -47,6 +65,59 @@ class BeerRepositoryTest {
         assertThat(list.getContent().size()).isEqualTo(336);
     }
 
+    @Test
+    void testGetBeerListByNameToken() {
+        Slice<Beer> list = beerRepository.findSliceByNameToken("ipa", "%ipa%", null, PageRequest.ofSize(1000));
+
+        assertThat(list.getContent().size()).isEqualTo(336);
+    }
+
+    @Test
+    void testGetBeerListByNameTokenMatchesEscapedWildcardsLiterally() {
+        assertThat(beerRepository.findSliceByNameToken("pub", "%p_b%", null, PageRequest.ofSize(1000))
+                .getContent()).isNotEmpty();
+        assertThat(beerRepository.findSliceByNameToken("pub", "%p\\_b%", null, PageRequest.ofSize(1000))
+                .getContent()).isEmpty();
+    }
+
+    @Test
+    void testGetBeerListByNameTokenMatchesEveryWord() {
+        assertThat(beerRepository.findSliceByNameToken("pub", "%", "^(?=.*\\Qbeer\\E)(?=.*\\Qpub\\E)",
+                PageRequest.ofSize(1000)).getContent()).extracting(Beer::getBeerName).contains("Pub Beer");
+        assertThat(beerRepository.findSliceByNameToken("pub", "%", "^(?=.*\\Qbeer\\E)(?=.*\\Qnot-a-word\\E)",
+                PageRequest.ofSize(1000)).getContent()).isEmpty();
+    }
+
+    @Test
+    void testCountBeersByNameTokens() {
+        assertThat(beerRepository.countBeersByNameTokens(BeerNameTokens.of("ipa")))
+                .containsExactly(new BeerNameTokenCount("ipa", 336));
+    }
+
+    @Test
+    void testGetBeerSliceByStyleAfterCursor() {
+        Slice<Beer> first = beerRepository.findSliceByBeerStyleAfter(BeerStyle.IPA,
+                BeerCursor.FIRST.beerName(), BeerCursor.FIRST.id(), PageRequest.ofSize(500));
+        Beer last = first.getContent().get(first.getContent().size() - 1);
+
+        Slice<Beer> second = beerRepository.findSliceByBeerStyleAfter(BeerStyle.IPA,
+                last.getBeerName(), last.getId(), PageRequest.ofSize(500));
+
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.hasNext()).isFalse();
+        assertThat(first.getContent().size() + second.getContent().size()).isEqualTo(547);
+    }
+
+    @Test
+    void testGetBeerSummarySliceByNameAndStyle() {
+        Slice<BeerSummary> slice = beerRepository.findSummarySliceByNamePatternAndBeerStyle("%ipa%", null, BeerStyle.IPA,
+                PageRequest.of(0, 500, Sort.by("beerName")));
+
+        assertThat(slice.getContent().size()).isEqualTo(310);
+        assertThat(slice.getContent().get(0).beerName())
+                .isLessThanOrEqualTo(slice.getContent().get(1).beerName());
+    }
+
     @Test
     @DisplayName("Repository save Beer with invalid value throws exception")
     void repositorySaveBeerWithInvalidValueThrowsException() {
@@ -78,4 +149,55 @@ class BeerRepositoryTest {
         assertThat(savedBeer).isNotNull();
         assertThat(savedBeer.getId()).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Repository save Beer assigns time ordered ids")
+    void repositorySaveBeerTimeOrderedIds() {
+        Beer first = beerRepository.save(Beer.builder()
+                .beerName("My Beer")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("123123")
+                .price(new BigDecimal("11.99"))
+                .build());
+        Beer second = beerRepository.save(Beer.builder()
+                .beerName("My Other Beer")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("123124")
+                .price(new BigDecimal("11.99"))
+                .build());
+
+        beerRepository.flush();
+
+        assertThat(first.getId().version()).isEqualTo(7);
+        assertThat(second.getId().toString()).isGreaterThan(first.getId().toString());
+    }
+
+    @Test
+    @DisplayName("Repository find Beer by id is served from second level cache")
+    void testFindByIdSecondLevelCache() {
+        Beer loaded = beerRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        entityManager.clear();
+
+        CacheRegionStatistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics().getDomainDataRegionStatistics("beer");
+        long hits = statistics.getHitCount();
+
+        Beer cached = beerRepository.findById(loaded.getId()).orElseThrow();
+
+        assertThat(cached.getBeerName()).isEqualTo(loaded.getBeerName());
+        assertThat(statistics.getHitCount()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    @DisplayName("Keyset pages stay out of the query cache")
+    void testKeysetPagesAreNotQueryCached() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long puts = statistics.getQueryCachePutCount();
+
+        beerRepository.findSliceAfter(BeerCursor.FIRST.beerName(), BeerCursor.FIRST.id(), PageRequest.ofSize(25));
+        beerRepository.findSliceByBeerStyleAfter(BeerStyle.IPA, BeerCursor.FIRST.beerName(), BeerCursor.FIRST.id(),
+                PageRequest.ofSize(25));
+
+        assertThat(statistics.getQueryCachePutCount()).isEqualTo(puts);
+    }
+}
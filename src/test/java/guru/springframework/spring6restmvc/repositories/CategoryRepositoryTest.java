@@ -1,8 +1,11 @@
 package guru.springframework.spring6restmvc.repositories;
 
+import guru.springframework.spring6restmvc.StatementCounter;
 import guru.springframework.spring6restmvc.entities.Beer;
 import guru.springframework.spring6restmvc.entities.Category;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -19,6 +22,9 @@ class CategoryRepositoryTest {
     @Autowired
     BeerRepository beerRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
     Beer testBeer;
 
     @BeforeEach
@@ -41,13 +47,31 @@ class CategoryRepositoryTest {
 
         assertThat(categoryRepository.findById(savedCategory.getId()).isPresent()).isTrue();
     }
-}
-
-
-
-
-
-
-
-
 
+    @Rollback
+    @Transactional
+    @Test
+    @DisplayName("Category with its beers and beer with its categories are loaded in one statement each")
+    void testFindWithBeersAndCategoriesInOneStatement() {
+        Category savedCategory = categoryRepository.save(Category.builder()
+                .description("Lagers")
+                .build());
+        testBeer.addCategory(savedCategory);
+        beerRepository.save(testBeer);
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+
+        StatementCounter statements = StatementCounter.start(entityManager);
+        Category category = categoryRepository.findWithBeersById(savedCategory.getId()).orElseThrow();
+        assertThat(category.getBeers()).extracting(Beer::getId).containsExactly(testBeer.getId());
+        statements.assertStatements(1);
+
+        entityManager.clear();
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        statements.reset();
+        Beer beer = beerRepository.findWithCategoriesById(testBeer.getId()).orElseThrow();
+        assertThat(beer.getCategories()).extracting(Category::getDescription).containsExactly("Lagers");
+        statements.assertStatements(1);
+    }
+}
@@ -0,0 +1,95 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerSearchMode;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Beer Count Cache tests")
+class BeerCountCacheTest {
+
+    BeerCountCache beerCountCache;
+
+    AtomicInteger countQueries = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        beerCountCache = new BeerCountCache(2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Count is served from cache until invalidated")
+    void countIsServedFromCacheUntilInvalidated() {
+        assertThat(beerCountCache.getCount("IPA", null, BeerStyle.IPA, this::runCountQuery)).isEqualTo(42);
+        assertThat(beerCountCache.getCount("IPA", null, BeerStyle.IPA, this::runCountQuery)).isEqualTo(42);
+        assertThat(countQueries.get()).isEqualTo(1);
+
+        beerCountCache.invalidate();
+
+        beerCountCache.getCount("IPA", null, BeerStyle.IPA, this::runCountQuery);
+        assertThat(countQueries.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Counts are cached per filter")
+    void countsAreCachedPerFilter() {
+        beerCountCache.getCount("IPA", null, null, this::runCountQuery);
+        beerCountCache.getCount(null, null, BeerStyle.IPA, this::runCountQuery);
+
+        assertThat(countQueries.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Counts are cached per search mode")
+    void countsAreCachedPerSearchMode() {
+        beerCountCache.getCount("IPA", BeerSearchMode.PREFIX, null, this::runCountQuery);
+        beerCountCache.getCount("IPA", BeerSearchMode.CONTAINS, null, this::runCountQuery);
+
+        assertThat(countQueries.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Count read before the writing transaction commits is dropped again after it")
+    void countIsInvalidatedAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            beerCountCache.invalidate();
+            beerCountCache.getCount("IPA", null, null, this::runCountQuery);    // still sees the uncommitted total
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        beerCountCache.getCount("IPA", null, null, this::runCountQuery);
+        assertThat(countQueries.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Number of cached filters is bounded")
+    void cachedFiltersAreBounded() {
+        for (int i = 0; i < 1000; i++) {
+            beerCountCache.getCount("IPA " + i, null, null, this::runCountQuery);
+        }
+        countQueries.set(0);
+
+        for (int i = 0; i < 1000; i++) {
+            beerCountCache.getCount("IPA " + i, null, null, this::runCountQuery);
+        }
+        assertThat(countQueries.get()).isGreaterThan(900);
+    }
+
+    private long runCountQuery() {
+        countQueries.incrementAndGet();
+        return 42;
+    }
+}
@@ -0,0 +1,47 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerCsvImportResult;
+import guru.springframework.spring6restmvc.model.BeerStyle;
+import guru.springframework.spring6restmvc.repositories.BeerRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.util.ResourceUtils;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({BeerCsvServiceImpl.class, BeerCsvImportServiceImpl.class, BeerBatchWriter.class,
+        BeerCountCache.class, BeerDtoCache.class, BeerImportMetrics.class})
+@DisplayName("Beer CSV Import Service tests")
+class BeerCsvImportServiceTest {
+
+    @Autowired
+    BeerCsvImportService beerCsvImportService;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Test
+    @DisplayName("All CSV rows are imported in batches")
+    void allCsvRowsAreImported() throws FileNotFoundException {
+        File file = ResourceUtils.getFile("classpath:csvdata/beers.csv");
+
+        BeerCsvImportResult result = beerCsvImportService.importCsv(file);
+
+        assertThat(result.getRowsImported()).isEqualTo(2410);
+        assertThat(beerRepository.count()).isEqualTo(2410);
+    }
+
+    @Test
+    @DisplayName("CSV style is mapped to Beer Style")
+    void csvStyleIsMappedToBeerStyle() {
+        assertThat(BeerCsvImportServiceImpl.mapBeerStyle("American IPA")).isEqualTo(BeerStyle.IPA);
+        assertThat(BeerCsvImportServiceImpl.mapBeerStyle("Unknown")).isEqualTo(BeerStyle.PILSNER);
+    }
+}
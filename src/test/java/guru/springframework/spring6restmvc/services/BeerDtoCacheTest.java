@@ -0,0 +1,126 @@
+package guru.springframework.spring6restmvc.services;
+
+import guru.springframework.spring6restmvc.model.BeerDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Beer DTO Cache tests")
+class BeerDtoCacheTest {
+
+    BeerDtoCache beerDtoCache;
+
+    AtomicInteger loads = new AtomicInteger();
+
+    UUID beerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        beerDtoCache = new BeerDtoCache(100, 10, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Beer is served from cache until evicted")
+    void beerIsServedFromCacheUntilEvicted() {
+        assertThat(beerDtoCache.getBeer(beerId, this::loadBeer)).isPresent();
+        assertThat(beerDtoCache.getBeer(beerId, this::loadBeer)).isPresent();
+        assertThat(loads.get()).isEqualTo(1);
+
+        beerDtoCache.evict(beerId);
+
+        beerDtoCache.getBeer(beerId, this::loadBeer);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Evicting one beer's stock clears the pages showing inventory and keeps the others")
+    void evictStockClearsInventoryPages() {
+        BeerDtoCache.PageKey inventoryKey = new BeerDtoCache.PageKey(null, null, null, null, 1, 25);
+        BeerDtoCache.PageKey summaryKey = new BeerDtoCache.PageKey(null, null, null, false, 1, 25);
+        AtomicInteger inventoryPageLoads = new AtomicInteger();
+        AtomicInteger summaryPageLoads = new AtomicInteger();
+        beerDtoCache.getPage(inventoryKey, () -> loadPage(inventoryPageLoads));
+        beerDtoCache.getPage(summaryKey, () -> loadPage(summaryPageLoads));
+        beerDtoCache.getBeer(beerId, this::loadBeer);
+
+        beerDtoCache.evictStock(beerId);
+
+        beerDtoCache.getPage(inventoryKey, () -> loadPage(inventoryPageLoads));
+        beerDtoCache.getPage(summaryKey, () -> loadPage(summaryPageLoads));
+        beerDtoCache.getBeer(beerId, this::loadBeer);
+        assertThat(inventoryPageLoads.get()).isEqualTo(2);
+        assertThat(summaryPageLoads.get()).isEqualTo(1);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Missing beer is not cached")
+    void missingBeerIsNotCached() {
+        assertThat(beerDtoCache.getBeer(beerId, () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        })).isEmpty();
+
+        assertThat(beerDtoCache.getBeer(beerId, this::loadBeer)).isPresent();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Concurrent misses on one beer run a single load")
+    void concurrentMissesRunSingleLoad() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(50);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<BeerDTO>>> results = new ArrayList<>();
+
+        for (int i = 0; i < 500; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return beerDtoCache.getBeer(beerId, () -> {
+                    sleep();
+                    return loadBeer();
+                });
+            }));
+        }
+        start.countDown();
+
+        for (Future<Optional<BeerDTO>> result : results) {
+            assertThat(result.get()).isPresent();
+        }
+        executor.shutdown();
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    private Optional<BeerDTO> loadBeer() {
+        loads.incrementAndGet();
+        return Optional.of(BeerDTO.builder().id(beerId).beerName("Cached Beer").build());
+    }
+
+    private Page<BeerDTO> loadPage(AtomicInteger pageLoads) {
+        pageLoads.incrementAndGet();
+        return new PageImpl<>(List.of(BeerDTO.builder().id(beerId).beerName("Cached Beer").build()));
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}